@@ -0,0 +1,102 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import com.openclassrooms.starterjwt.repository.JwtRevocationRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
+import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark de AuthTokenFilter.doFilterInternal() sur des objets servlet mock
+ *
+ * Ce qu'on mesure (débit, et allocations avec -prof gc) :
+ * - un token valide, expiré ou mal formé, et "none" sans en-tête comme référence du coût du harnais
+ * - le principal relu depuis UserDetailsCache ou reconstruit depuis les claims (statelessPrincipal)
+ * - la signature vérifiée une fois puis relue depuis JwtTokenCache, ou à chaque requête (tokenCache = false)
+ *
+ * Les collaborateurs sont les vrais composants : JwtTokenCache et UserDetailsCache sont chauds,
+ * comme en production après la première requête d'un utilisateur. Le repository n'est jamais appelé.
+ * Sans tokenCache, JwtTokenCache est créé avec une taille de 0 et ne met plus rien en cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+@State(Scope.Thread)
+public class AuthTokenFilterBenchmark {
+
+  @Param({"valid", "expired", "malformed", "none"})
+  public String token;
+
+  @Param({"false", "true"})
+  public boolean statelessPrincipal;
+
+  @Param({"true", "false"})
+  public boolean tokenCache;
+
+  private AuthTokenFilter authTokenFilter;
+  private String authorization;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    JwtUtils jwtUtils = BenchmarkTokens.jwtUtils();
+
+    UserDetailsCache userDetailsCache = new UserDetailsCache(10000, 600000);
+    userDetailsCache.put(BenchmarkTokens.userDetails());
+    UserDetailsServiceImpl userDetailsService = BeanUtils.instantiateClass(
+      UserDetailsServiceImpl.class.getDeclaredConstructor(UserRepository.class, UserDetailsCache.class),
+      mock(UserRepository.class), userDetailsCache);
+
+    authTokenFilter = new AuthTokenFilter();
+    ReflectionTestUtils.setField(authTokenFilter, "jwtUtils", jwtUtils);
+    ReflectionTestUtils.setField(authTokenFilter, "userDetailsService", userDetailsService);
+    ReflectionTestUtils.setField(authTokenFilter, "jwtTokenCache", new JwtTokenCache(tokenCache ? 10000 : 0));
+    ReflectionTestUtils.setField(authTokenFilter, "jwtRevocationRegistry", new JwtRevocationRegistry(
+      mock(JwtRevocationRepository.class), BenchmarkTokens.EXPIRATION_MS, 5000));
+    ReflectionTestUtils.setField(authTokenFilter, "jwtMetrics", new JwtMetrics(new SimpleMeterRegistry()));
+    ReflectionTestUtils.setField(authTokenFilter, "statelessPrincipal", statelessPrincipal);
+
+    String jwt = BenchmarkTokens.token(token, jwtUtils);
+    authorization = jwt != null ? "Bearer " + jwt : null;
+  }
+
+  @Benchmark
+  public Authentication doFilterInternal() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+    if (authorization != null) {
+      request.addHeader("Authorization", authorization);
+    }
+
+    try {
+      authTokenFilter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+      return SecurityContextHolder.getContext().getAuthentication();
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+}
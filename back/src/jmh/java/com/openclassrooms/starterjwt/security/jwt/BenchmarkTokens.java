@@ -0,0 +1,69 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+/**
+ * Jeux de données communs aux benchmarks : un JwtUtils configuré et des tokens
+ * valides, expirés ou mal formés signés avec le même secret.
+ */
+final class BenchmarkTokens {
+
+  static final String SECRET = "benchmarkSecretKeyForJwtTokenGenerationMustBeLongEnough";
+  static final int EXPIRATION_MS = 3600000;
+
+  private BenchmarkTokens() {
+  }
+
+  static JwtUtils jwtUtils() {
+    JwtUtils jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", EXPIRATION_MS);
+    return jwtUtils;
+  }
+
+  static UserDetailsImpl userDetails() {
+    return UserDetailsImpl.builder()
+      .id(1L)
+      .username("yoga@studio.com")
+      .firstName("Admin")
+      .lastName("Admin")
+      .password("password")
+      .admin(false)
+      .build();
+  }
+
+  static Authentication authentication() {
+    UserDetailsImpl userDetails = userDetails();
+    return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+  }
+
+  // "none" donne une requête sans en-tête Authorization, pour mesurer le coût du harnais seul
+  static String token(String kind, JwtUtils jwtUtils) {
+    switch (kind) {
+      case "valid":
+        return jwtUtils.generateJwtToken(authentication());
+      case "expired":
+        UserDetailsImpl userDetails = userDetails();
+        return Jwts.builder()
+          .setSubject(userDetails.getUsername())
+          .claim(JwtValidationResult.CLAIM_ID, userDetails.getId())
+          .setIssuedAt(new Date(System.currentTimeMillis() - 2L * EXPIRATION_MS))
+          .setExpiration(new Date(System.currentTimeMillis() - EXPIRATION_MS))
+          .signWith(SignatureAlgorithm.HS512, SECRET)
+          .compact();
+      case "malformed":
+        return "not-a-jwt";
+      case "none":
+        return null;
+      default:
+        throw new IllegalArgumentException("Unknown token kind " + kind);
+    }
+  }
+}
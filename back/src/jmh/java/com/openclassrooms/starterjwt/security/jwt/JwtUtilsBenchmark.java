@@ -0,0 +1,81 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de JwtUtils
+ *
+ * Ce qu'on mesure (débit, et allocations avec -prof gc) :
+ * - generateJwtToken() : signature d'un nouveau token
+ * - validateJwtToken() / parseJwtToken() : token valide, expiré ou mal formé
+ * - getUserNameFromJwtToken() : token valide
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class JwtUtilsBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Signer {
+    JwtUtils jwtUtils;
+    Authentication authentication;
+    String validToken;
+
+    @Setup
+    public void setUp() {
+      jwtUtils = BenchmarkTokens.jwtUtils();
+      authentication = BenchmarkTokens.authentication();
+      validToken = BenchmarkTokens.token("valid", jwtUtils);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Tokens {
+    @Param({"valid", "expired", "malformed"})
+    public String kind;
+
+    JwtUtils jwtUtils;
+    String token;
+
+    @Setup
+    public void setUp() {
+      jwtUtils = BenchmarkTokens.jwtUtils();
+      token = BenchmarkTokens.token(kind, jwtUtils);
+    }
+  }
+
+  @Benchmark
+  public String generateJwtToken(Signer signer) {
+    return signer.jwtUtils.generateJwtToken(signer.authentication);
+  }
+
+  @Benchmark
+  public boolean validateJwtToken(Tokens tokens) {
+    return tokens.jwtUtils.validateJwtToken(tokens.token);
+  }
+
+  @Benchmark
+  public JwtValidationResult parseJwtToken(Tokens tokens) {
+    return tokens.jwtUtils.parseJwtToken(tokens.token);
+  }
+
+  @Benchmark
+  public String getUserNameFromJwtToken(Signer signer) {
+    return signer.jwtUtils.getUserNameFromJwtToken(signer.validToken);
+  }
+}
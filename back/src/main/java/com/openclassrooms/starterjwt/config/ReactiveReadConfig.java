@@ -0,0 +1,40 @@
+package com.openclassrooms.starterjwt.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+
+/**
+ * R2DBC client for the non-blocking read endpoints, next to the JDBC DataSource used by JPA.
+ * The ConnectionFactory is deliberately not a bean: DataSourceAutoConfiguration backs off as soon as one exists.
+ * R2dbcAutoConfiguration is excluded for the same reason (see SpringBootSecurityJwtApplication).
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReactiveReadConfig implements DisposableBean {
+    private ConnectionFactory connectionFactory;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${oc.app.r2dbc.url}") String url,
+                                                 @Value("${oc.app.r2dbc.username}") String username,
+                                                 @Value("${oc.app.r2dbc.password}") String password) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+
+        return DatabaseClient.create(this.connectionFactory);
+    }
+
+    @Override
+    public void destroy() {
+        if (this.connectionFactory instanceof Disposable) {
+            ((Disposable) this.connectionFactory).dispose();
+        }
+    }
+}
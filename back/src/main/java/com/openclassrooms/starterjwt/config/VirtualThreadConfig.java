@@ -0,0 +1,73 @@
+package com.openclassrooms.starterjwt.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in (oc.app.virtualThreads=true) mode running Tomcat requests and async MVC work on one virtual thread per task.
+ * With unbounded request threads the Hikari pool becomes the concurrency limit, see spring.datasource.hikari.*
+ * and the hikaricp.connections.* metrics. On a JVM without virtual threads the platform thread pools are kept.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "oc.app.virtualThreads", havingValue = "true")
+@Log4j2
+public class VirtualThreadConfig {
+    private static final String TRACE_PINNED_THREADS = "jdk.tracePinnedThreads";
+
+    public VirtualThreadConfig() {
+        if (!VirtualThreads.isSupported()) {
+            log.warn("oc.app.virtualThreads is set but Java {} has no virtual threads, keeping platform threads",
+                    System.getProperty("java.version"));
+        }
+    }
+
+    // "short" or "full" prints a stack trace whenever a virtual thread blocks while pinned to its carrier,
+    // e.g. inside a synchronized block of the JDBC driver; it must be set before the first virtual thread starts
+    @Bean(destroyMethod = "shutdown")
+    @Conditional(OnVirtualThreadsSupported.class)
+    public ExecutorService virtualThreadExecutor(@Value("${oc.app.virtualThreadsTracePinning:}") String tracePinning) {
+        if (!tracePinning.isEmpty()) {
+            System.setProperty(TRACE_PINNED_THREADS, tracePinning);
+        }
+
+        log.info("Running requests on virtual threads");
+        return VirtualThreads.newPerTaskExecutor();
+    }
+
+    @Bean
+    @Conditional(OnVirtualThreadsSupported.class)
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @Conditional(OnVirtualThreadsSupported.class)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    static class OnVirtualThreadsSupported extends SpringBootCondition {
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return VirtualThreads.isSupported()
+                    ? ConditionOutcome.match("virtual threads are available")
+                    : ConditionOutcome.noMatch("virtual threads need Java 21, running " + System.getProperty("java.version"));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Looks up virtual threads reflectively, so the application still compiles for and runs on Java 11.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return factoryMethod() != null;
+    }
+
+    public static ExecutorService newPerTaskExecutor() {
+        Method factory = factoryMethod();
+        if (factory == null) {
+            throw new IllegalStateException("Virtual threads require Java 21, running " + System.getProperty("java.version"));
+        }
+
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    private static Method factoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.services.ReactiveReadService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only session endpoints served from R2DBC. The request thread is released while the database works,
+ * and the list is written as newline-delimited JSON, one session at a time, as the client consumes it.
+ * These are Spring MVC handlers on the servlet stack, not WebFlux: the Mono is resumed by an async dispatch on a
+ * Tomcat request thread, while each element of the Flux is written to the response by applicationTaskExecutor,
+ * bounded by spring.task.execution.pool.* (one virtual thread per write when oc.app.virtualThreads is on).
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/reactive/session")
+public class ReactiveSessionController {
+    private final SessionMapper sessionMapper;
+    private final ReactiveReadService reactiveReadService;
+
+
+    public ReactiveSessionController(ReactiveReadService reactiveReadService,
+                                     SessionMapper sessionMapper) {
+        this.sessionMapper = sessionMapper;
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<SessionDto>> findById(@PathVariable("id") String id) {
+        try {
+            return this.reactiveReadService.findViewById(Long.valueOf(id))
+                    .map(view -> ResponseEntity.ok(this.sessionMapper.toDto(view.getT1(), view.getT2())))
+                    .defaultIfEmpty(ResponseEntity.notFound().build());
+        } catch (NumberFormatException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SessionDto> findAll() {
+        return this.reactiveReadService.findAllViews()
+                .map(view -> this.sessionMapper.toDto(view.getT1(), view.getT2()));
+    }
+}
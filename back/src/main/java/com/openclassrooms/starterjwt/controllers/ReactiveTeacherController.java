@@ -0,0 +1,33 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.mapper.TeacherMapper;
+import com.openclassrooms.starterjwt.services.ReactiveReadService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Teacher list served from R2DBC as newline-delimited JSON. This is a Spring MVC handler on the servlet stack,
+ * not WebFlux: each element of the Flux is written to the response by applicationTaskExecutor, bounded by
+ * spring.task.execution.pool.* (one virtual thread per write when oc.app.virtualThreads is on).
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/reactive/teacher")
+public class ReactiveTeacherController {
+    private final TeacherMapper teacherMapper;
+    private final ReactiveReadService reactiveReadService;
+
+
+    public ReactiveTeacherController(ReactiveReadService reactiveReadService,
+                                     TeacherMapper teacherMapper) {
+        this.teacherMapper = teacherMapper;
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TeacherDto> findAll() {
+        return this.reactiveReadService.findAllTeachers().map(this.teacherMapper::toDto);
+    }
+}
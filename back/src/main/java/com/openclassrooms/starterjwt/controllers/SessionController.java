@@ -1,52 +1,195 @@
 package com.openclassrooms.starterjwt.controllers;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.mapper.SessionMappingContext;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.payload.request.ParticipantsRequest;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionFilter;
+import com.openclassrooms.starterjwt.payload.response.BatchItemError;
+import com.openclassrooms.starterjwt.payload.response.EnrolmentResult;
+import com.openclassrooms.starterjwt.payload.response.SessionPageResponse;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+import com.openclassrooms.starterjwt.services.EnrolmentOutcome;
+import com.openclassrooms.starterjwt.services.ParticipationStatus;
 import com.openclassrooms.starterjwt.services.SessionService;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/session")
 @Log4j2
 public class SessionController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final SessionMapper sessionMapper;
     private final SessionService sessionService;
 
+    private final ObjectWriter sessionWriter;
+
+    private final Validator validator;
+
 
     public SessionController(SessionService sessionService,
-                             SessionMapper sessionMapper) {
+                             SessionMapper sessionMapper,
+                             ObjectMapper objectMapper,
+                             Validator validator) {
         this.sessionMapper = sessionMapper;
         this.sessionService = sessionService;
+        this.validator = validator;
+        this.sessionWriter = objectMapper.writerFor(SessionDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+    public ResponseEntity<?> findById(@PathVariable("id") String id, WebRequest request) {
         try {
+            // The tag is read before the session, so a concurrent write can only make it older than the body
+            String eTag = this.sessionService.getETag(Long.valueOf(id));
+
+            if (eTag == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
             Session session = this.sessionService.getById(Long.valueOf(id));
 
             if (session == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+            return ok(eTag).body(this.sessionMapper.toDto(session));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping()
-    public ResponseEntity<?> findAll() {
-        List<Session> sessions = this.sessionService.findAll();
+    public ResponseEntity<?> findAll(@RequestParam(value = "page", required = false) String page,
+                                     @RequestParam(value = "size", required = false) String size,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "from", required = false) String from,
+                                     @RequestParam(value = "to", required = false) String to,
+                                     @RequestParam(value = "upcoming", required = false) String upcoming,
+                                     @RequestParam(value = "teacherId", required = false) String teacherId,
+                                     WebRequest request) {
+        boolean paged = page != null || size != null || cursor != null;
+        boolean filtered = from != null || to != null || upcoming != null || teacherId != null;
+
+        // Reject malformed parameters before the ETag check, so a bad request never gets a 304
+        SessionFilter filter;
+        SessionCursor after;
+        int pageSize;
+        int pageNumber;
+        try {
+            filter = SessionFilter.of(from, to, upcoming, teacherId);
+            after = cursor != null ? SessionCursor.decode(cursor) : null;
+            pageSize = size != null ? Integer.parseInt(size) : DEFAULT_PAGE_SIZE;
+            pageNumber = page != null ? Integer.parseInt(page) : 0;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE || pageNumber < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // "upcoming" depends on the current time, not only on the table content
+        String eTag = upcoming == null ? this.sessionService.getListETag() : null;
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        if (!paged && !filtered) {
+            List<SessionDto> sessions = this.sessionMapper.toDto(
+                    this.sessionService.findAllViews(),
+                    this.sessionService.findAllParticipations());
+
+            return ok(eTag).body(sessions);
+        }
+        if (!paged) {
+            List<SessionView> views = this.sessionService.findViews(filter, null, Pageable.unpaged()).getContent();
+
+            return ok(eTag).body(toDto(views));
+        }
+
+        Slice<SessionView> slice = after != null
+                ? this.sessionService.findViews(filter, after, PageRequest.of(0, pageSize))
+                : this.sessionService.findViews(filter, null, PageRequest.of(pageNumber, pageSize));
+
+        return ok(eTag).body(toPageResponse(slice, after != null ? null : pageNumber));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = this.sessionWriter.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                this.sessionService.forEachView((view, userIds) -> {
+                    try {
+                        this.sessionWriter.writeValue(generator, this.sessionMapper.toDto(view, userIds));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private ResponseEntity.BodyBuilder ok(String eTag) {
+        return eTag != null ? ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag) : ResponseEntity.ok();
+    }
 
-        return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions));
+    private List<SessionDto> toDto(List<SessionView> views) {
+        List<Long> sessionIds = views.stream().map(SessionView::getId).collect(Collectors.toList());
+        return this.sessionMapper.toDto(views, this.sessionService.findParticipations(sessionIds));
+    }
+
+    private SessionPageResponse toPageResponse(Slice<SessionView> slice, Integer pageNumber) {
+        List<SessionView> views = slice.getContent();
+        List<SessionDto> content = toDto(views);
+
+        String nextCursor = slice.hasNext() && !views.isEmpty()
+                ? SessionCursor.of(views.get(views.size() - 1)).encode()
+                : null;
+
+        return new SessionPageResponse(content, pageNumber, slice.getSize(), slice.hasNext(), nextCursor);
     }
 
     @PostMapping()
@@ -59,6 +202,66 @@ public class SessionController {
         return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveAll(@RequestBody List<SessionDto> sessionDtos) {
+        if (sessionDtos.isEmpty() || sessionDtos.size() > MAX_BATCH_SIZE || sessionDtos.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SessionMappingContext context = this.sessionMapper.resolve(sessionDtos);
+        Set<Long> existingIds = this.sessionService.findExistingIds(sessionDtos.stream()
+                .map(SessionDto::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Set<Long> seenIds = new HashSet<>();
+
+        List<Session> sessions = new ArrayList<>();
+        List<BatchItemError> errors = new ArrayList<>();
+        for (int i = 0; i < sessionDtos.size(); i++) {
+            SessionDto sessionDto = sessionDtos.get(i);
+            List<String> messages = this.validator.validate(sessionDto).stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            if (sessionDto.getId() != null && !existingIds.contains(sessionDto.getId())) {
+                messages.add("id: unknown session " + sessionDto.getId());
+            } else if (sessionDto.getId() != null && !seenIds.add(sessionDto.getId())) {
+                messages.add("id: duplicated session " + sessionDto.getId());
+            } else if (sessionDto.getId() != null && sessionDto.getVersion() == null) {
+                messages.add("version: required to update a session");
+            }
+            if (sessionDto.getTeacher_id() != null && !context.hasTeacher(sessionDto.getTeacher_id())) {
+                messages.add("teacher_id: unknown teacher " + sessionDto.getTeacher_id());
+            }
+            Set<Long> unknownUsers = context.unknownUsers(sessionDto.getUsers());
+            if (!unknownUsers.isEmpty()) {
+                messages.add("users: unknown users " + unknownUsers);
+            }
+
+            if (messages.isEmpty()) {
+                Session session = this.sessionMapper.toEntity(sessionDto, context);
+                if (this.sessionService.exceedsCapacity(session)) {
+                    messages.add("capacity: more users than seats");
+                }
+                sessions.add(session);
+            }
+            if (!messages.isEmpty()) {
+                errors.add(new BatchItemError(i, messages));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+
+        try {
+            return ResponseEntity.ok().body(this.sessionMapper.toDto(this.sessionService.saveAll(sessions)));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     @PutMapping("{id}")
     public ResponseEntity<?> update(@PathVariable("id") String id, @Valid @RequestBody SessionDto sessionDto) {
         try {
@@ -67,6 +270,8 @@ public class SessionController {
             return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -89,11 +294,16 @@ public class SessionController {
     @PostMapping("{id}/participate/{userId}")
     public ResponseEntity<?> participate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
         try {
-            this.sessionService.participate(Long.parseLong(id), Long.parseLong(userId));
+            ParticipationStatus status = this.sessionService.participate(Long.parseLong(id), Long.parseLong(userId));
 
+            if (status == ParticipationStatus.WAITLISTED) {
+                return ResponseEntity.accepted().build();
+            }
             return ResponseEntity.ok().build();
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -105,6 +315,26 @@ public class SessionController {
             return ResponseEntity.ok().build();
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("{id}/participants")
+    public ResponseEntity<?> updateParticipants(@PathVariable("id") String id,
+                                                @Valid @RequestBody ParticipantsRequest participantsRequest) {
+        try {
+            Map<Long, EnrolmentOutcome> outcomes = participantsRequest.getAction() == ParticipantsRequest.Action.ADD
+                    ? this.sessionService.addParticipants(Long.parseLong(id), participantsRequest.getUserIds())
+                    : this.sessionService.removeParticipants(Long.parseLong(id), participantsRequest.getUserIds());
+
+            return ResponseEntity.ok().body(outcomes.entrySet().stream()
+                    .map(outcome -> new EnrolmentResult(outcome.getKey(), outcome.getValue()))
+                    .collect(Collectors.toList()));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 }
@@ -1,19 +1,29 @@
 package com.openclassrooms.starterjwt.mapper;
 
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.projection.ParticipationView;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
 import com.openclassrooms.starterjwt.services.TeacherService;
 import com.openclassrooms.starterjwt.services.UserService;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,17 +36,85 @@ public abstract class SessionMapper implements EntityMapper<SessionDto, Session>
     UserService userService;
 
     @Mappings({
-            @Mapping(source = "description", target = "description"),
-            @Mapping(target = "teacher", expression = "java(sessionDto.getTeacher_id() != null ? this.teacherService.findById(sessionDto.getTeacher_id()) : null)"),
-            @Mapping(target = "users", expression = "java(Optional.ofNullable(sessionDto.getUsers()).orElseGet(Collections::emptyList).stream().map(user_id -> { User user = this.userService.findById(user_id); if (user != null) { return user; } return null; }).collect(Collectors.toList()))"),
+            @Mapping(source = "sessionDto.description", target = "description"),
+            @Mapping(target = "teacher", expression = "java(context.getTeacher(sessionDto.getTeacher_id()))"),
+            @Mapping(target = "users", expression = "java(context.getUsers(sessionDto.getUsers()))"),
     })
-    public abstract Session toEntity(SessionDto sessionDto);
+    public abstract Session toEntity(SessionDto sessionDto, @Context SessionMappingContext context);
+
+    @Override
+    public Session toEntity(SessionDto sessionDto) {
+        if (sessionDto == null) {
+            return null;
+        }
+
+        return toEntity(sessionDto, resolveAll(Collections.singletonList(sessionDto)));
+    }
+
+    @Override
+    public List<Session> toEntity(List<SessionDto> dtoList) {
+        if (dtoList == null) {
+            return null;
+        }
+
+        SessionMappingContext context = resolveAll(dtoList);
+        return dtoList.stream().map(sessionDto -> toEntity(sessionDto, context)).collect(Collectors.toList());
+    }
+
+    public SessionMappingContext resolve(List<SessionDto> dtoList) {
+        Set<Long> userIds = userIds(dtoList);
+        Set<Long> teacherIds = dtoList.stream()
+                .map(SessionDto::getTeacher_id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return new SessionMappingContext(this.userService.findAllById(userIds), this.teacherService.findAllById(teacherIds));
+    }
+
+    private SessionMappingContext resolveAll(List<SessionDto> dtoList) {
+        SessionMappingContext context = resolve(dtoList);
+
+        Set<Long> unknownUsers = context.unknownUsers(userIds(dtoList));
+        Set<Long> unknownTeachers = dtoList.stream()
+                .map(SessionDto::getTeacher_id)
+                .filter(id -> id != null && !context.hasTeacher(id))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!unknownUsers.isEmpty() || !unknownTeachers.isEmpty()) {
+            throw new BadRequestException("Unknown user ids " + unknownUsers + ", unknown teacher ids " + unknownTeachers);
+        }
+
+        return context;
+    }
+
+    private static Set<Long> userIds(List<SessionDto> dtoList) {
+        return dtoList.stream()
+                .map(SessionDto::getUsers)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .collect(Collectors.toSet());
+    }
 
 
     @Mappings({
             @Mapping(source = "description", target = "description"),
             @Mapping(source = "session.teacher.id", target = "teacher_id"),
-            @Mapping(target = "users", expression = "java(Optional.ofNullable(session.getUsers()).orElseGet(Collections::emptyList).stream().map(u -> u.getId()).collect(Collectors.toList()))"),
+            @Mapping(target = "users", expression = "java(Optional.ofNullable(session.getUsers()).orElseGet(Collections::emptySet).stream().map(u -> u.getId()).collect(Collectors.toList()))"),
     })
     public abstract SessionDto toDto(Session session);
+
+    @Mappings({
+            @Mapping(source = "view.teacherId", target = "teacher_id"),
+            @Mapping(source = "users", target = "users"),
+    })
+    public abstract SessionDto toDto(SessionView view, List<Long> users);
+
+    public List<SessionDto> toDto(List<SessionView> views, List<ParticipationView> participations) {
+        Map<Long, List<Long>> usersBySession = participations.stream()
+                .collect(Collectors.groupingBy(ParticipationView::getSessionId,
+                        Collectors.mapping(ParticipationView::getUserId, Collectors.toList())));
+
+        return views.stream()
+                .map(view -> toDto(view, usersBySession.getOrDefault(view.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 }
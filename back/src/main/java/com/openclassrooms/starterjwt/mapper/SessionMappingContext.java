@@ -0,0 +1,51 @@
+package com.openclassrooms.starterjwt.mapper;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Users and teachers referenced by the SessionDto being mapped, loaded up front with one query per type.
+ */
+public class SessionMappingContext {
+    private final Map<Long, User> users;
+
+    private final Map<Long, Teacher> teachers;
+
+    public SessionMappingContext(Collection<User> users, Collection<Teacher> teachers) {
+        this.users = users.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        this.teachers = teachers.stream().collect(Collectors.toMap(Teacher::getId, Function.identity()));
+    }
+
+    public Teacher getTeacher(Long id) {
+        return id != null ? this.teachers.get(id) : null;
+    }
+
+    public boolean hasTeacher(Long id) {
+        return this.teachers.containsKey(id);
+    }
+
+    public Set<Long> unknownUsers(Collection<Long> ids) {
+        if (ids == null) {
+            return new TreeSet<>();
+        }
+
+        return ids.stream().filter(id -> !this.users.containsKey(id)).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    public Set<User> getUsers(List<Long> ids) {
+        if (ids == null) {
+            return new HashSet<>();
+        }
+
+        return ids.stream().map(this.users::get).collect(Collectors.toSet());
+    }
+}
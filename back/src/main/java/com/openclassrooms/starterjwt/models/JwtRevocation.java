@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.models;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+
+// Kept as epoch millis so that it compares directly with the token's issued-at, whatever the server time zone
+@Entity
+@Table(name = "JWT_REVOCATIONS", indexes = @Index(name = "idx_jwt_revocations_revoked_at", columnList = "revoked_at"))
+@Data
+@Accessors(chain = true)
+@EqualsAndHashCode(of = {"userId"})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class JwtRevocation {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @NotNull
+    @Column(name = "revoked_at")
+    private Long revokedAt;
+}
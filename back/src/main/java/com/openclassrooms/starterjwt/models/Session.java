@@ -3,20 +3,26 @@ package com.openclassrooms.starterjwt.models;
 
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.Date;
-import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "SESSIONS")
+@Table(name = "SESSIONS", indexes = @Index(name = "idx_sessions_date_teacher", columnList = "date, teacher_id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "session")
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Accessors(chain = true)
@@ -26,8 +32,10 @@ import java.util.List;
 @AllArgsConstructor
 @ToString
 public class Session {
+    // Ids are reserved 50 at a time so that inserts can be batched; MySQL emulates the sequence with a table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "session_seq")
+    @SequenceGenerator(name = "session_seq", sequenceName = "SESSIONS_SEQ", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -46,11 +54,25 @@ public class Session {
     private Teacher teacher;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "session-users")
     @JoinTable(
             name = "PARTICIPATE",
             joinColumns = @JoinColumn( name = "session_id" ),
-            inverseJoinColumns = @JoinColumn( name = "user_id" ) )
-    private List<User> users;
+            inverseJoinColumns = @JoinColumn( name = "user_id" ),
+            indexes = @Index(name = "idx_participate_user_session", columnList = "user_id, session_id"))
+    private Set<User> users;
+
+    @Min(1)
+    private Integer capacity;
+
+    @NotNull
+    @Builder.Default
+    @Column(name = "participant_count")
+    private Integer participantCount = 0;
+
+    @Version
+    private Long version;
 
     @CreatedDate
     @Column(name = "created_at", updatable = false)
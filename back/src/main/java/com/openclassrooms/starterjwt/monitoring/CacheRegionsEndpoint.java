@@ -0,0 +1,63 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes the hit ratio of every Hibernate second-level cache region at /actuator/cacheregions.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheRegionsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, RegionStatistics.of(region));
+            }
+        }
+        return regions;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RegionStatistics {
+        private final long hitCount;
+
+        private final long missCount;
+
+        private final long putCount;
+
+        private final double hitRatio;
+
+        private final long elementCountInMemory;
+
+        static RegionStatistics of(CacheRegionStatistics region) {
+            long requests = region.getHitCount() + region.getMissCount();
+            double hitRatio = requests > 0 ? (double) region.getHitCount() / requests : 0;
+
+            return new RegionStatistics(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                    hitRatio, region.getElementCountInMemory());
+        }
+    }
+}
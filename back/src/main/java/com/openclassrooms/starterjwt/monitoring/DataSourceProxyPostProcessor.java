@@ -0,0 +1,34 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the JDBC DataSource so that SqlStatementListener sees every statement.
+ * The proxy delegates unwrap() to the pool, so the HikariCP metrics still find it.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SqlStatementListener> listener;
+
+    // Resolved lazily: a post-processor must not pull regular beans in while it is being registered
+    public DataSourceProxyPostProcessor(ObjectProvider<SqlStatementListener> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(this.listener.getObject())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the JPA backed services as "yoga.service", tagged with the service, the method
+ * and the exception thrown. Only calls made through the Spring proxy are timed, not calls from inside the service.
+ * ReactiveReadService is left out: its methods return before the query has even started.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+    public static final String METRIC_NAME = "yoga.service";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.openclassrooms.starterjwt.services.SessionService.*(..))"
+            + " || execution(public * com.openclassrooms.starterjwt.services.TeacherService.*(..))"
+            + " || execution(public * com.openclassrooms.starterjwt.services.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(this.meterRegistry));
+        }
+    }
+}
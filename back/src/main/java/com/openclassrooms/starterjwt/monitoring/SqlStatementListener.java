@@ -0,0 +1,84 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sees every JDBC execution, Hibernate or JdbcTemplate, through the proxy installed by DataSourceProxyPostProcessor.
+ * Each execution is timed as "yoga.sql.statements" by statement type, counted against the current request,
+ * and written with its bind parameters to the "yoga.sql.slow" logger when it exceeds oc.app.slowQueryThresholdMs.
+ * A JDBC batch is one execution.
+ */
+@Component
+public class SqlStatementListener implements QueryExecutionListener, MeterBinder {
+    public static final String METRIC_NAME = "yoga.sql.statements";
+    public static final String SLOW_QUERY_LOGGER = "yoga.sql.slow";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+
+    private final long slowQueryThresholdMs;
+
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    // Bound once the registry exists, the first statements run while the DataSource is still being set up
+    private volatile Map<QueryType, Timer> timers;
+
+    public SqlStatementListener(@Value("${oc.app.slowQueryThresholdMs:200}") long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<QueryType, Timer> byType = new EnumMap<>(QueryType.class);
+        for (QueryType type : QueryType.values()) {
+            byType.put(type, Timer.builder(METRIC_NAME)
+                    .description("JDBC statement executions")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        this.timers = byType;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Map<QueryType, Timer> byType = this.timers;
+        if (byType != null && !queryInfoList.isEmpty()) {
+            QueryType type = QueryUtils.getQueryType(queryInfoList.get(0).getQuery());
+            byType.get(type).record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+        }
+
+        boolean slow = execInfo.getElapsedTime() >= this.slowQueryThresholdMs;
+        SqlStatementScope scope = SqlStatementScope.current();
+        if (scope != null) {
+            scope.statementExecuted(slow);
+        }
+        if (slow && slowQueryLog.isWarnEnabled()) {
+            slowQueryLog.warn("{} ms in {} ({}): {}",
+                    execInfo.getElapsedTime(),
+                    scope != null ? scope.endpoint() : "no request",
+                    scope != null && scope.handler() != null ? scope.handler() : "no handler",
+                    this.logEntryCreator.getLogEntry(execInfo, queryInfoList, false, true, false));
+        }
+    }
+}
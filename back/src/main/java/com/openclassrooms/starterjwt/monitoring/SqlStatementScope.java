@@ -0,0 +1,72 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Statements executed by the current request thread, between SqlStatementsFilter opening and closing the scope.
+ * Work handed to another thread (async MVC, R2DBC) is not attributed to the request.
+ */
+final class SqlStatementScope {
+    private static final ThreadLocal<SqlStatementScope> CURRENT = new ThreadLocal<>();
+
+    static final String UNMAPPED = "UNMAPPED";
+
+    private final HttpServletRequest request;
+
+    private int statements;
+
+    private int slowStatements;
+
+    private SqlStatementScope(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    static SqlStatementScope open(HttpServletRequest request) {
+        SqlStatementScope scope = new SqlStatementScope(request);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static SqlStatementScope current() {
+        return CURRENT.get();
+    }
+
+    void close() {
+        CURRENT.remove();
+    }
+
+    void statementExecuted(boolean slow) {
+        this.statements++;
+        if (slow) {
+            this.slowStatements++;
+        }
+    }
+
+    int getStatements() {
+        return this.statements;
+    }
+
+    int getSlowStatements() {
+        return this.slowStatements;
+    }
+
+    // The mapping attributes are only set once the DispatcherServlet has picked a handler. Requests rejected
+    // before that (e.g. by Spring Security) share one bucket, never the raw URI, so callers cannot grow the map
+    String endpoint() {
+        Object pattern = this.request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return this.request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED);
+    }
+
+    String handler() {
+        Object handler = this.request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod)) {
+            return null;
+        }
+
+        HandlerMethod method = (HandlerMethod) handler;
+        return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+    }
+}
@@ -0,0 +1,89 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exposes the JDBC statements run per endpoint at /actuator/sqlstatements, e.g. "GET /api/session/{id}".
+ * A mean that grows with the data set is the signature of an N+1. DELETE resets the counters.
+ * Requests that never reach a controller are counted under "<method> UNMAPPED".
+ */
+@Component
+@Endpoint(id = "sqlstatements")
+public class SqlStatementsEndpoint {
+    private final ConcurrentMap<String, Counters> byEndpoint = new ConcurrentHashMap<>();
+
+    void record(String endpoint, String handler, int statements, int slowStatements) {
+        this.byEndpoint.computeIfAbsent(endpoint, key -> new Counters()).add(handler, statements, slowStatements);
+    }
+
+    @ReadOperation
+    public Map<String, EndpointStatistics> endpoints() {
+        Map<String, EndpointStatistics> endpoints = new TreeMap<>();
+        this.byEndpoint.forEach((endpoint, counters) -> endpoints.put(endpoint, counters.snapshot()));
+        return endpoints;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        this.byEndpoint.clear();
+    }
+
+    private static class Counters {
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder statements = new LongAdder();
+
+        private final LongAdder slowStatements = new LongAdder();
+
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        private volatile String handler;
+
+        void add(String handler, int statements, int slowStatements) {
+            if (handler != null) {
+                this.handler = handler;
+            }
+            this.requests.increment();
+            this.statements.add(statements);
+            this.slowStatements.add(slowStatements);
+            this.maxStatements.accumulateAndGet(statements, Math::max);
+        }
+
+        EndpointStatistics snapshot() {
+            long requestCount = this.requests.sum();
+            long statementCount = this.statements.sum();
+            double mean = requestCount > 0 ? (double) statementCount / requestCount : 0;
+
+            return new EndpointStatistics(this.handler, requestCount, statementCount, mean,
+                    this.maxStatements.get(), this.slowStatements.sum());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EndpointStatistics {
+        private final String handler;
+
+        private final long requests;
+
+        private final long statements;
+
+        private final double meanStatements;
+
+        private final long maxStatements;
+
+        private final long slowStatements;
+    }
+}
@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Counts the statements of each request, including the ones run by the security filters,
+ * and adds them to SqlStatementsEndpoint under the matched endpoint pattern.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementsFilter extends OncePerRequestFilter {
+    private final SqlStatementsEndpoint sqlStatementsEndpoint;
+
+    public SqlStatementsFilter(SqlStatementsEndpoint sqlStatementsEndpoint) {
+        this.sqlStatementsEndpoint = sqlStatementsEndpoint;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementScope scope = SqlStatementScope.open(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            this.sqlStatementsEndpoint.record(scope.endpoint(), scope.handler(),
+                    scope.getStatements(), scope.getSlowStatements());
+        }
+    }
+}
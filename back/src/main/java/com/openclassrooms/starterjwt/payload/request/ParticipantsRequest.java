@@ -0,0 +1,24 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import java.util.List;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import lombok.Data;
+
+@Data
+public class ParticipantsRequest {
+  public enum Action {
+    ADD,
+    REMOVE
+  }
+
+  @NotNull
+  private Action action;
+
+  @NotEmpty
+  @Size(max = 1000)
+  private List<@NotNull Long> userIds;
+}
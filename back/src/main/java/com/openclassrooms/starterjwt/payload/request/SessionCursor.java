@@ -0,0 +1,47 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+
+import lombok.Getter;
+
+/**
+ * Opaque keyset position in the (date, id) ordering of sessions.
+ */
+@Getter
+public class SessionCursor {
+  private final Date date;
+
+  private final Long id;
+
+  public SessionCursor(Date date, Long id) {
+    this.date = date;
+    this.id = id;
+  }
+
+  public static SessionCursor of(SessionView view) {
+    return new SessionCursor(view.getDate(), view.getId());
+  }
+
+  public static SessionCursor decode(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = decoded.split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid session cursor: " + cursor);
+      }
+
+      return new SessionCursor(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid session cursor: " + cursor, e);
+    }
+  }
+
+  public String encode() {
+    String raw = date.getTime() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,58 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+import lombok.Getter;
+
+/**
+ * Date range [from, to) and optional teacher used to narrow the session list.
+ * Open bounds are replaced by sentinels so that queries always hit the (date, teacher_id) index as a range scan.
+ */
+@Getter
+public class SessionFilter {
+  public static final Date MIN_DATE = new Date(0L);
+  public static final Date MAX_DATE = Date.from(Instant.parse("9999-12-31T00:00:00Z"));
+
+  private final Date from;
+
+  private final Date to;
+
+  private final Long teacherId;
+
+  public SessionFilter(Date from, Date to, Long teacherId) {
+    this.from = from != null ? from : MIN_DATE;
+    this.to = to != null ? to : MAX_DATE;
+    this.teacherId = teacherId;
+  }
+
+  public static SessionFilter of(String from, String to, String upcoming, String teacherId) {
+    Date fromDate = parseDate(from);
+    if (Boolean.parseBoolean(upcoming)) {
+      Date now = new Date();
+      if (fromDate == null || fromDate.before(now)) {
+        fromDate = now;
+      }
+    }
+
+    return new SessionFilter(fromDate, parseDate(to), teacherId != null ? Long.valueOf(teacherId) : null);
+  }
+
+  private static Date parseDate(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      if (value.length() == 10) {
+        return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+      }
+      return Date.from(Instant.parse(value));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date: " + value, e);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import com.openclassrooms.starterjwt.services.EnrolmentOutcome;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EnrolmentResult {
+  private Long userId;
+
+  private EnrolmentOutcome outcome;
+}
@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import java.util.List;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SessionPageResponse {
+  private List<SessionDto> content;
+
+  private Integer page;
+
+  private int size;
+
+  private boolean hasNext;
+
+  private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.JwtRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface JwtRevocationRepository extends JpaRepository<JwtRevocation, Long> {
+    List<JwtRevocation> findByRevokedAtGreaterThan(Long since);
+
+    // Revocations older than the longest-lived token no longer reject anything
+    @Modifying
+    @Transactional
+    @Query("delete from JwtRevocation r where r.revokedAt <= :before")
+    int deleteExpired(@Param("before") Long before);
+}
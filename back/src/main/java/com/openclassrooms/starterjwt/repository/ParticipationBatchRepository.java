@@ -0,0 +1,40 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based PARTICIPATE and WAITING_LIST inserts, sent as one JDBC batch instead of one statement per user.
+ * Callers must evict the cached Session.users collection (see SessionCacheEvictor).
+ */
+@Repository
+public class ParticipationBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ParticipationBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addParticipants(Long sessionId, List<Long> userIds) {
+        this.jdbcTemplate.batchUpdate("insert into PARTICIPATE (session_id, user_id) values (?, ?)",
+                userIds, userIds.size(), (statement, userId) -> {
+                    statement.setLong(1, sessionId);
+                    statement.setLong(2, userId);
+                });
+    }
+
+    // Entries are inserted in list order, which is the order they will be promoted in
+    public void addToWaitingList(Long sessionId, List<Long> userIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        this.jdbcTemplate.batchUpdate("insert into WAITING_LIST (session_id, user_id, created_at) values (?, ?, ?)",
+                userIds, userIds.size(), (statement, userId) -> {
+                    statement.setLong(1, sessionId);
+                    statement.setLong(2, userId);
+                    statement.setTimestamp(3, now);
+                });
+    }
+}
@@ -0,0 +1,118 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.projection.SessionParticipantView;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Non-blocking reads over R2DBC. Rows are pulled from the driver as the subscriber requests them,
+ * so a slow client slows the query down instead of buffering the whole table.
+ * Nothing goes through Hibernate: the second-level cache is neither read nor populated.
+ * Timestamps come back as the wall-clock values JDBC stored in hibernate.jdbc.time_zone, so they are
+ * converted from that zone to match what the JPA endpoints return.
+ */
+@Repository
+public class ReactiveReadRepository {
+    private static final String SELECT_SESSIONS = "select s.id, s.name, s.date, s.description, s.teacher_id, s.capacity, "
+            + "s.participant_count, s.version, s.created_at, s.updated_at, p.user_id "
+            + "from SESSIONS s left join PARTICIPATE p on p.session_id = s.id ";
+
+    private static final String SELECT_TEACHERS = "select t.id, t.last_name, t.first_name, t.created_at, t.updated_at "
+            + "from TEACHERS t ";
+
+    private final DatabaseClient databaseClient;
+
+    private final ZoneId storageZone;
+
+    public ReactiveReadRepository(DatabaseClient reactiveDatabaseClient,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.time_zone}") ZoneId storageZone) {
+        this.databaseClient = reactiveDatabaseClient;
+        this.storageZone = storageZone;
+    }
+
+    // One row per participant, ordered so that the rows of a session are consecutive
+    public Flux<SessionParticipantView> findViewsWithParticipants() {
+        return this.databaseClient.sql(SELECT_SESSIONS + "order by s.id, p.user_id")
+                .map(this::toSessionRow)
+                .all();
+    }
+
+    public Flux<SessionParticipantView> findViewWithParticipantsById(Long id) {
+        return this.databaseClient.sql(SELECT_SESSIONS + "where s.id = :id order by p.user_id")
+                .bind("id", id)
+                .map(this::toSessionRow)
+                .all();
+    }
+
+    public Flux<Teacher> findAllTeachers() {
+        return this.databaseClient.sql(SELECT_TEACHERS + "order by t.id")
+                .map(this::toTeacher)
+                .all();
+    }
+
+    private SessionParticipantView toSessionRow(Row row) {
+        LocalDateTime date = row.get("date", LocalDateTime.class);
+
+        return new SessionRow(
+                toLong(row.get("id")),
+                row.get("name", String.class),
+                date != null ? Date.from(date.atZone(this.storageZone).toInstant()) : null,
+                row.get("description", String.class),
+                toLong(row.get("teacher_id")),
+                toInteger(row.get("capacity")),
+                toInteger(row.get("participant_count")),
+                toLong(row.get("version")),
+                toLocalDateTime(row.get("created_at", LocalDateTime.class)),
+                toLocalDateTime(row.get("updated_at", LocalDateTime.class)),
+                toLong(row.get("user_id")));
+    }
+
+    private Teacher toTeacher(Row row) {
+        return Teacher.builder()
+                .id(toLong(row.get("id")))
+                .lastName(row.get("last_name", String.class))
+                .firstName(row.get("first_name", String.class))
+                .createdAt(toLocalDateTime(row.get("created_at", LocalDateTime.class)))
+                .updatedAt(toLocalDateTime(row.get("updated_at", LocalDateTime.class)))
+                .build();
+    }
+
+    // JPA hands LocalDateTime attributes back in the JVM's zone
+    private LocalDateTime toLocalDateTime(LocalDateTime stored) {
+        return stored != null
+                ? stored.atZone(this.storageZone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()
+                : null;
+    }
+
+    // Integer columns come back as Integer or Long depending on the driver and the DDL
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+
+    @lombok.Value
+    private static class SessionRow implements SessionParticipantView {
+        Long id;
+        String name;
+        Date date;
+        String description;
+        Long teacherId;
+        Integer capacity;
+        Integer participantCount;
+        Long version;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        Long userId;
+    }
+}
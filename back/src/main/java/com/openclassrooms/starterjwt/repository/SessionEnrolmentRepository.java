@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.util.Collection;
+
+/**
+ * PARTICIPATE rows and the seat and version counters of a session, written with plain JDBC. Hibernate would
+ * clear the whole session and session-users cache regions after a JPQL bulk update or a native query on these
+ * tables, so callers evict the one session they write instead (see SessionCacheEvictor).
+ */
+public interface SessionEnrolmentRepository {
+    int addParticipant(Long sessionId, Long userId);
+
+    int removeParticipant(Long sessionId, Long userId);
+
+    int removeParticipants(Long sessionId, Collection<Long> userIds);
+
+    // Bumps the version of the session row, which also holds its row lock until the transaction ends
+    int incrementVersion(Long id);
+
+    // Takes a seat only while the session is not full; 0 means the session is full or does not exist.
+    // Does not bump the version: callers lock the row with incrementVersion or releaseSeat first
+    int claimSeat(Long id);
+
+    int releaseSeat(Long id);
+
+    int adjustParticipantCount(Long id, int delta);
+}
@@ -0,0 +1,60 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Transactional
+public class SessionEnrolmentRepositoryImpl implements SessionEnrolmentRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SessionEnrolmentRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int addParticipant(Long sessionId, Long userId) {
+        return this.jdbcTemplate.update("insert into PARTICIPATE (session_id, user_id) values (:sessionId, :userId)",
+                new MapSqlParameterSource("sessionId", sessionId).addValue("userId", userId));
+    }
+
+    @Override
+    public int removeParticipant(Long sessionId, Long userId) {
+        return this.jdbcTemplate.update("delete from PARTICIPATE where session_id = :sessionId and user_id = :userId",
+                new MapSqlParameterSource("sessionId", sessionId).addValue("userId", userId));
+    }
+
+    @Override
+    public int removeParticipants(Long sessionId, Collection<Long> userIds) {
+        return this.jdbcTemplate.update("delete from PARTICIPATE where session_id = :sessionId and user_id in (:userIds)",
+                new MapSqlParameterSource("sessionId", sessionId).addValue("userIds", userIds));
+    }
+
+    @Override
+    public int incrementVersion(Long id) {
+        return this.jdbcTemplate.update("update SESSIONS set version = version + 1 where id = :id",
+                new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public int claimSeat(Long id) {
+        return this.jdbcTemplate.update("update SESSIONS set participant_count = participant_count + 1 " +
+                "where id = :id and (capacity is null or participant_count < capacity)",
+                new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public int releaseSeat(Long id) {
+        return this.jdbcTemplate.update("update SESSIONS set participant_count = participant_count - 1, " +
+                "version = version + 1 where id = :id and participant_count > 0",
+                new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public int adjustParticipantCount(Long id, int delta) {
+        return this.jdbcTemplate.update("update SESSIONS set participant_count = participant_count + :delta " +
+                "where id = :id", new MapSqlParameterSource("id", id).addValue("delta", delta));
+    }
+}
@@ -1,9 +1,105 @@
 package com.openclassrooms.starterjwt.repository;
 
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.projection.EnrolmentView;
+import com.openclassrooms.starterjwt.repository.projection.ParticipationView;
+import com.openclassrooms.starterjwt.repository.projection.SeatView;
+import com.openclassrooms.starterjwt.repository.projection.SessionParticipantView;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+import com.openclassrooms.starterjwt.repository.projection.TableState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+
 @Repository
-public interface SessionRepository  extends JpaRepository<Session, Long> {
+public interface SessionRepository  extends JpaRepository<Session, Long>, SessionEnrolmentRepository {
+    @Query("select s.id as id, s.name as name, s.date as date, s.description as description, " +
+            "s.teacher.id as teacherId, s.capacity as capacity, s.participantCount as participantCount, " +
+            "s.version as version, s.createdAt as createdAt, s.updatedAt as updatedAt " +
+            "from Session s order by s.id")
+    List<SessionView> findAllViews();
+
+    // One row per participant, grouped by session; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "500"))
+    @Query("select s.id as id, s.name as name, s.date as date, s.description as description, " +
+            "s.teacher.id as teacherId, s.capacity as capacity, s.participantCount as participantCount, " +
+            "s.version as version, s.createdAt as createdAt, s.updatedAt as updatedAt, u.id as userId " +
+            "from Session s left join s.users u order by s.id, u.id")
+    Stream<SessionParticipantView> streamViewsWithParticipants();
+
+    @Query("select s.id as id, s.name as name, s.date as date, s.description as description, " +
+            "s.teacher.id as teacherId, s.capacity as capacity, s.participantCount as participantCount, " +
+            "s.version as version, s.createdAt as createdAt, s.updatedAt as updatedAt " +
+            "from Session s where s.date >= :from and s.date < :to order by s.date, s.id")
+    Slice<SessionView> findViews(@Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    @Query("select s.id as id, s.name as name, s.date as date, s.description as description, " +
+            "s.teacher.id as teacherId, s.capacity as capacity, s.participantCount as participantCount, " +
+            "s.version as version, s.createdAt as createdAt, s.updatedAt as updatedAt " +
+            "from Session s where s.date >= :from and s.date < :to " +
+            "and (s.date > :date or (s.date = :date and s.id > :id)) order by s.date, s.id")
+    Slice<SessionView> findViewsAfter(@Param("from") Date from, @Param("to") Date to,
+                                      @Param("date") Date date, @Param("id") Long id, Pageable pageable);
+
+    @Query("select s.id as id, s.name as name, s.date as date, s.description as description, " +
+            "s.teacher.id as teacherId, s.capacity as capacity, s.participantCount as participantCount, " +
+            "s.version as version, s.createdAt as createdAt, s.updatedAt as updatedAt " +
+            "from Session s where s.date >= :from and s.date < :to and s.teacher.id = :teacherId " +
+            "order by s.date, s.id")
+    Slice<SessionView> findViewsByTeacher(@Param("teacherId") Long teacherId,
+                                          @Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    @Query("select s.id as id, s.name as name, s.date as date, s.description as description, " +
+            "s.teacher.id as teacherId, s.capacity as capacity, s.participantCount as participantCount, " +
+            "s.version as version, s.createdAt as createdAt, s.updatedAt as updatedAt " +
+            "from Session s where s.date >= :from and s.date < :to and s.teacher.id = :teacherId " +
+            "and (s.date > :date or (s.date = :date and s.id > :id)) order by s.date, s.id")
+    Slice<SessionView> findViewsByTeacherAfter(@Param("teacherId") Long teacherId,
+                                               @Param("from") Date from, @Param("to") Date to,
+                                               @Param("date") Date date, @Param("id") Long id, Pageable pageable);
+
+    // Every write to a session or to its participants bumps its version, so these aggregates identify the content
+    @Query("select count(s) as rowCount, max(s.id) as maxId, sum(s.version) as versionSum, " +
+            "max(s.updatedAt) as lastUpdate from Session s")
+    TableState findTableState();
+
+    @Query("select count(s) as rowCount, max(s.id) as maxId, sum(s.version) as versionSum, " +
+            "max(s.updatedAt) as lastUpdate from Session s where s.id = :id")
+    TableState findStateById(@Param("id") Long id);
+
+    @Query("select s.id from Session s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select p.session_id as sessionId, p.user_id as userId from PARTICIPATE p", nativeQuery = true)
+    List<ParticipationView> findAllParticipations();
+
+    @Query(value = "select p.session_id as sessionId, p.user_id as userId from PARTICIPATE p " +
+            "where p.session_id in (:sessionIds)", nativeQuery = true)
+    List<ParticipationView> findParticipations(@Param("sessionIds") Collection<Long> sessionIds);
+
+    @Query(value = "select count(*) from PARTICIPATE p where p.session_id = :sessionId and p.user_id = :userId",
+            nativeQuery = true)
+    long countParticipation(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    // One row per existing user, telling whether they participate in or wait for the session
+    @Query(value = "select u.id as userId, p.user_id as participantId, w.id as waitingId from USERS u " +
+            "left join PARTICIPATE p on p.user_id = u.id and p.session_id = :sessionId " +
+            "left join WAITING_LIST w on w.user_id = u.id and w.session_id = :sessionId " +
+            "where u.id in (:userIds)", nativeQuery = true)
+    List<EnrolmentView> findEnrolments(@Param("sessionId") Long sessionId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("select s.capacity as capacity, s.participantCount as participantCount from Session s where s.id = :id")
+    SeatView findSeatsById(@Param("id") Long id);
 }
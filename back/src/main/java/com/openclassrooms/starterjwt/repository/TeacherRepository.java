@@ -1,9 +1,29 @@
 package com.openclassrooms.starterjwt.repository;
 
 import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.projection.TableState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 @Repository
 public interface TeacherRepository  extends JpaRepository<Teacher, Long> {
+    // The result is invalidated by Hibernate whenever the TEACHERS table is written
+    @Override
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    List<Teacher> findAll();
+
+    @Query("select count(t) as rowCount, max(t.id) as maxId, max(t.updatedAt) as lastUpdate from Teacher t")
+    TableState findTableState();
+
+    @Query("select count(t) as rowCount, max(t.id) as maxId, max(t.updatedAt) as lastUpdate " +
+            "from Teacher t where t.id = :id")
+    TableState findStateById(@Param("id") Long id);
 }
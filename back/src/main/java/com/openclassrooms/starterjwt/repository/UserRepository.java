@@ -10,6 +10,4 @@ import com.openclassrooms.starterjwt.models.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
-
-  Boolean existsByEmail(String email); 
 }
@@ -0,0 +1,43 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.WaitingListEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface WaitingListRepository extends JpaRepository<WaitingListEntry, Long> {
+    // Entry ids are increasing, so the lowest id of a session is the longest waiting user
+    Optional<WaitingListEntry> findFirstBySessionIdOrderByIdAsc(Long sessionId);
+
+    List<WaitingListEntry> findBySessionIdOrderByIdAsc(Long sessionId, Pageable pageable);
+
+    boolean existsBySessionIdAndUserId(Long sessionId, Long userId);
+
+    @Query("select distinct w.sessionId from WaitingListEntry w where w.sessionId in :sessionIds")
+    Set<Long> findSessionIdsWithEntries(@Param("sessionIds") Collection<Long> sessionIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from WaitingListEntry w where w.sessionId = :sessionId and w.userId = :userId")
+    int deleteEntry(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from WaitingListEntry w where w.sessionId = :sessionId and w.userId in :userIds")
+    int deleteEntries(@Param("sessionId") Long sessionId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from WaitingListEntry w where w.sessionId = :sessionId")
+    int deleteBySession(@Param("sessionId") Long sessionId);
+}
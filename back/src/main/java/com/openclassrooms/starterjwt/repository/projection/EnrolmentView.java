@@ -0,0 +1,11 @@
+package com.openclassrooms.starterjwt.repository.projection;
+
+public interface EnrolmentView {
+    Long getUserId();
+
+    // Null when the user does not participate in the session
+    Long getParticipantId();
+
+    // Null when the user is not on the waiting list of the session
+    Long getWaitingId();
+}
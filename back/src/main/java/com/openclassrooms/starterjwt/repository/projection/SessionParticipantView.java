@@ -0,0 +1,6 @@
+package com.openclassrooms.starterjwt.repository.projection;
+
+public interface SessionParticipantView extends SessionView {
+    // Null for a session without participants
+    Long getUserId();
+}
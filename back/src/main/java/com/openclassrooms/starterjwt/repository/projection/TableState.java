@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregates of a table, or of a single row, that change whenever its content changes.
+ * They are read instead of the entities to answer conditional requests.
+ */
+public interface TableState {
+    Long getRowCount();
+
+    Long getMaxId();
+
+    // Null for tables without a version column
+    Long getVersionSum();
+
+    LocalDateTime getLastUpdate();
+
+    default String toETag() {
+        return getRowCount() + "-" + getMaxId() + "-" + getVersionSum() + "-" + getLastUpdate();
+    }
+}
@@ -59,6 +59,9 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
       .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
       .authorizeRequests().antMatchers("/api/auth/**").permitAll()
       .antMatchers("/api/**").authenticated()
+      // Probes and Prometheus scrapes carry no token; keep /actuator/prometheus off the public network
+      .antMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+      .antMatchers("/actuator/**").hasRole("ADMIN")
       .anyRequest().authenticated();
 
     http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -10,6 +10,8 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +19,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
@@ -26,6 +29,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsServiceImpl userDetailsService;
 
+  @Autowired
+  private JwtTokenCache jwtTokenCache;
+
+  @Autowired
+  private JwtRevocationRegistry jwtRevocationRegistry;
+
+  @Autowired
+  private JwtMetrics jwtMetrics;
+
+  @Value("${oc.app.jwtStatelessPrincipal:false}")
+  private boolean statelessPrincipal;
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
   @Override
@@ -33,10 +48,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      JwtValidationResult token = jwt != null ? resolveToken(jwt) : null;
+      if (token != null) {
+        jwtMetrics.recordValidation(token);
+      }
+      if (token != null && token.isValid()) {
+        UserDetails userDetails = loadUserDetails(token);
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -47,12 +64,42 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         SecurityContextHolder.getContext().setAuthentication(authentication);
       }
     } catch (Exception e) {
-      logger.error("Cannot set user authentication: {}", e);
+      logger.error("Cannot set user authentication: {}", e.getMessage());
     }
 
     filterChain.doFilter(request, response);
   }
 
+  private UserDetails loadUserDetails(JwtValidationResult token) {
+    if (!statelessPrincipal || !token.hasPrincipalClaims()) {
+      return userDetailsService.loadUserByUsername(token.getSubject());
+    }
+
+    if (jwtRevocationRegistry.isRevoked(token.getUserId(), token.getIssuedAt())) {
+      jwtMetrics.recordRevoked();
+      throw new BadCredentialsException("Token has been revoked for user: " + token.getSubject());
+    }
+
+    return UserDetailsImpl
+            .builder()
+            .id(token.getUserId())
+            .username(token.getSubject())
+            .firstName(token.getFirstName())
+            .lastName(token.getLastName())
+            .admin(token.getAdmin())
+            .build();
+  }
+
+  private JwtValidationResult resolveToken(String jwt) {
+    JwtValidationResult token = jwtTokenCache.get(jwt);
+    if (token == null) {
+      token = jwtUtils.parseJwtToken(jwt);
+      jwtTokenCache.put(jwt, token);
+    }
+
+    return token;
+  }
+
   private String parseJwt(HttpServletRequest request) {
     String headerAuth = request.getHeader("Authorization");
 
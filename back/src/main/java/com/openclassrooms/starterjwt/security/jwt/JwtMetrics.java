@@ -0,0 +1,57 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the outcome of every bearer token seen by {@link AuthTokenFilter}, cached or not,
+ * as "yoga.jwt.validations" tagged with outcome=valid or the failure reason.
+ * Valid tokens of revoked users are also counted as "yoga.jwt.revoked".
+ */
+@Component
+public class JwtMetrics {
+  public static final String VALIDATIONS = "yoga.jwt.validations";
+  public static final String REVOKED = "yoga.jwt.revoked";
+
+  private final Counter valid;
+
+  private final Map<JwtValidationResult.FailureReason, Counter> failures =
+      new EnumMap<>(JwtValidationResult.FailureReason.class);
+
+  private final Counter revoked;
+
+  public JwtMetrics(MeterRegistry registry) {
+    this.valid = validations(registry, "valid");
+    for (JwtValidationResult.FailureReason reason : JwtValidationResult.FailureReason.values()) {
+      failures.put(reason, validations(registry, reason.name().toLowerCase(Locale.ROOT)));
+    }
+    this.revoked = Counter.builder(REVOKED)
+        .description("Valid tokens rejected because their user was revoked")
+        .register(registry);
+  }
+
+  public void recordValidation(JwtValidationResult result) {
+    if (result.isValid()) {
+      valid.increment();
+    } else {
+      failures.get(result.getFailureReason()).increment();
+    }
+  }
+
+  public void recordRevoked() {
+    revoked.increment();
+  }
+
+  private static Counter validations(MeterRegistry registry, String outcome) {
+    return Counter.builder(VALIDATIONS)
+        .description("Bearer tokens checked by the authentication filter")
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+}
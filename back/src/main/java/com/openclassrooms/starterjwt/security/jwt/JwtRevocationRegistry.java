@@ -0,0 +1,118 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.openclassrooms.starterjwt.models.JwtRevocation;
+import com.openclassrooms.starterjwt.repository.JwtRevocationRepository;
+
+/**
+ * Remembers users whose tokens must no longer be trusted (e.g. deleted accounts).
+ * Revocations are stored in JWT_REVOCATIONS, so they survive restarts and reach every instance: checks are
+ * answered from an in-memory snapshot reloaded every oc.app.jwtRevocationRefreshMs, which bounds how long
+ * another instance keeps accepting a revoked token. An entry only has to outlive the longest possible token,
+ * so it is dropped after oc.app.jwtExpirationMs.
+ * Inside a transaction the row is written with the caller's changes and the snapshot is only updated once
+ * they commit, so a rolled back deletion does not lock the user out of this instance.
+ */
+@Component
+public class JwtRevocationRegistry {
+  private final JwtRevocationRepository jwtRevocationRepository;
+
+  private final long jwtExpirationMs;
+
+  private final long refreshMs;
+
+  private volatile Map<Long, Long> revokedAt = Collections.emptyMap();
+
+  private volatile long loadedAt;
+
+  // Not a monitor: the reload queries the database, and blocking inside synchronized pins a virtual thread's carrier
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public JwtRevocationRegistry(JwtRevocationRepository jwtRevocationRepository,
+                               @Value("${oc.app.jwtExpirationMs}") long jwtExpirationMs,
+                               @Value("${oc.app.jwtRevocationRefreshMs}") long refreshMs) {
+    this.jwtRevocationRepository = jwtRevocationRepository;
+    this.jwtExpirationMs = jwtExpirationMs;
+    this.refreshMs = refreshMs;
+  }
+
+  public void revoke(Long userId) {
+    long now = System.currentTimeMillis();
+    jwtRevocationRepository.deleteExpired(now - jwtExpirationMs);
+    jwtRevocationRepository.save(JwtRevocation.builder().userId(userId).revokedAt(now).build());
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      remember(userId, now);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        remember(userId, now);
+      }
+    });
+  }
+
+  private void remember(Long userId, long at) {
+    lock.lock();
+    try {
+      Map<Long, Long> revocations = new HashMap<>(revokedAt);
+      revocations.put(userId, at);
+      revokedAt = revocations;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean isRevoked(Long userId, Date issuedAt) {
+    if (userId == null) {
+      return false;
+    }
+
+    refreshIfStale();
+    Long revocation = revokedAt.get(userId);
+    return revocation != null && (issuedAt == null || issuedAt.getTime() <= revocation);
+  }
+
+  // Revocations are never lifted, so the snapshot keeps its own entries until they expire and adds the stored ones
+  private void refreshIfStale() {
+    if (System.currentTimeMillis() - loadedAt < refreshMs) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      if (now - loadedAt < refreshMs) {
+        return;
+      }
+
+      long since = now - jwtExpirationMs;
+      Map<Long, Long> revocations = new HashMap<>();
+      revokedAt.forEach((userId, at) -> {
+        if (at > since) {
+          revocations.put(userId, at);
+        }
+      });
+      for (JwtRevocation revocation : jwtRevocationRepository.findByRevokedAtGreaterThan(since)) {
+        revocations.merge(revocation.getUserId(), revocation.getRevokedAt(), Math::max);
+      }
+
+      revokedAt = revocations;
+      loadedAt = now;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ * Entries are keyed by a SHA-256 digest of the token and expire together with the token itself.
+ * A maximum size of 0 disables caching: every token is verified again and no digest is computed.
+ */
+@Component
+public class JwtTokenCache {
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final Cache<String, JwtValidationResult> cache;
+
+  public JwtTokenCache(@Value("${oc.app.jwtCacheMaxSize:10000}") long maxSize) {
+    if (maxSize <= 0) {
+      this.cache = null;
+      return;
+    }
+
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<String, JwtValidationResult>() {
+          @Override
+          public long expireAfterCreate(String key, JwtValidationResult value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getExpiration().getTime() - System.currentTimeMillis()));
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, JwtValidationResult value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(String key, JwtValidationResult value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
+  public JwtValidationResult get(String token) {
+    if (cache == null) {
+      return null;
+    }
+
+    JwtValidationResult cached = cache.getIfPresent(digest(token));
+    if (cached == null || cached.isExpired()) {
+      return null;
+    }
+
+    return cached;
+  }
+
+  public void put(String token, JwtValidationResult result) {
+    if (cache == null || !result.isValid() || result.getExpiration() == null) {
+      return;
+    }
+
+    cache.put(digest(token), result);
+  }
+
+  public long size() {
+    if (cache == null) {
+      return 0;
+    }
+
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  static String digest(String token) {
+    byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(hash);
+  }
+}
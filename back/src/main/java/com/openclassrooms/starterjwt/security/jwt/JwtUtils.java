@@ -28,6 +28,10 @@ public class JwtUtils {
 
     return Jwts.builder()
         .setSubject((userPrincipal.getUsername()))
+        .claim(JwtValidationResult.CLAIM_ID, userPrincipal.getId())
+        .claim(JwtValidationResult.CLAIM_FIRST_NAME, userPrincipal.getFirstName())
+        .claim(JwtValidationResult.CLAIM_LAST_NAME, userPrincipal.getLastName())
+        .claim(JwtValidationResult.CLAIM_ADMIN, userPrincipal.getAdmin())
         .setIssuedAt(new Date())
         .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
         .signWith(SignatureAlgorithm.HS512, jwtSecret)
@@ -39,21 +43,28 @@ public class JwtUtils {
   }
 
   public boolean validateJwtToken(String authToken) {
+    return parseJwtToken(authToken).isValid();
+  }
+
+  public JwtValidationResult parseJwtToken(String authToken) {
     try {
-      Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-      return true;
+      Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
+      return JwtValidationResult.valid(claims);
     } catch (SignatureException e) {
       logger.error("Invalid JWT signature: {}", e.getMessage());
+      return JwtValidationResult.invalid(JwtValidationResult.FailureReason.INVALID_SIGNATURE);
     } catch (MalformedJwtException e) {
       logger.error("Invalid JWT token: {}", e.getMessage());
+      return JwtValidationResult.invalid(JwtValidationResult.FailureReason.MALFORMED);
     } catch (ExpiredJwtException e) {
-      logger.error("JWT token is expired: {}", e.getMessage());
+      logger.debug("JWT token is expired: {}", e.getMessage());
+      return JwtValidationResult.invalid(JwtValidationResult.FailureReason.EXPIRED);
     } catch (UnsupportedJwtException e) {
       logger.error("JWT token is unsupported: {}", e.getMessage());
+      return JwtValidationResult.invalid(JwtValidationResult.FailureReason.UNSUPPORTED);
     } catch (IllegalArgumentException e) {
       logger.error("JWT claims string is empty: {}", e.getMessage());
+      return JwtValidationResult.invalid(JwtValidationResult.FailureReason.EMPTY);
     }
-
-    return false;
   }
 }
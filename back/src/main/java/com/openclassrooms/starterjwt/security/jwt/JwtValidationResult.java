@@ -0,0 +1,70 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+@Getter
+public class JwtValidationResult {
+  public static final String CLAIM_ID = "id";
+  public static final String CLAIM_FIRST_NAME = "firstName";
+  public static final String CLAIM_LAST_NAME = "lastName";
+  public static final String CLAIM_ADMIN = "admin";
+
+  public enum FailureReason {
+    INVALID_SIGNATURE,
+    MALFORMED,
+    EXPIRED,
+    UNSUPPORTED,
+    EMPTY
+  }
+
+  private final String subject;
+
+  private final Date issuedAt;
+
+  private final Date expiration;
+
+  private final Long userId;
+
+  private final String firstName;
+
+  private final String lastName;
+
+  private final Boolean admin;
+
+  private final FailureReason failureReason;
+
+  private JwtValidationResult(Claims claims, FailureReason failureReason) {
+    this.subject = claims != null ? claims.getSubject() : null;
+    this.issuedAt = claims != null ? claims.getIssuedAt() : null;
+    this.expiration = claims != null ? claims.getExpiration() : null;
+    Number id = claims != null ? claims.get(CLAIM_ID, Number.class) : null;
+    this.userId = id != null ? id.longValue() : null;
+    this.firstName = claims != null ? claims.get(CLAIM_FIRST_NAME, String.class) : null;
+    this.lastName = claims != null ? claims.get(CLAIM_LAST_NAME, String.class) : null;
+    this.admin = claims != null ? claims.get(CLAIM_ADMIN, Boolean.class) : null;
+    this.failureReason = failureReason;
+  }
+
+  public static JwtValidationResult valid(Claims claims) {
+    return new JwtValidationResult(claims, null);
+  }
+
+  public static JwtValidationResult invalid(FailureReason failureReason) {
+    return new JwtValidationResult(null, failureReason);
+  }
+
+  public boolean hasPrincipalClaims() {
+    return userId != null;
+  }
+
+  public boolean isValid() {
+    return failureReason == null;
+  }
+
+  public boolean isExpired() {
+    return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+  }
+}
@@ -0,0 +1,97 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size and TTL bounded cache of {@link UserDetails} keyed by email.
+ * Hit, miss and eviction counters are published as the "userDetails" cache metrics.
+ * Evictions only reach the local instance: another instance keeps serving a changed or deleted user for at most
+ * oc.app.userDetailsCacheTtlMs after it loaded the entry.
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+  private final Cache<String, UserDetails> cache;
+
+  // Email of each cached user by id, updated in the same atomic step as the entry so evictById needs no scan
+  private final ConcurrentMap<Long, String> emailsById = new ConcurrentHashMap<>();
+
+  public UserDetailsCache(@Value("${oc.app.userDetailsCacheMaxSize:10000}") long maxSize,
+                          @Value("${oc.app.userDetailsCacheTtlMs:600000}") long ttlMs) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .recordStats()
+        .evictionListener((String email, UserDetails userDetails, RemovalCause cause) -> unindex(email, userDetails))
+        .build();
+  }
+
+  public UserDetails get(String email, Function<String, UserDetails> loader) {
+    return cache.get(email, key -> index(key, loader.apply(key)));
+  }
+
+  public void put(UserDetails userDetails) {
+    cache.asMap().compute(userDetails.getUsername(), (email, previous) -> index(email, userDetails));
+  }
+
+  public void evict(String email) {
+    cache.asMap().computeIfPresent(email, (key, userDetails) -> {
+      unindex(key, userDetails);
+      return null;
+    });
+  }
+
+  public void evictById(Long id) {
+    String email = emailsById.get(id);
+    if (email != null) {
+      evict(email);
+    }
+  }
+
+  public void invalidateAll() {
+    cache.asMap().keySet().forEach(this::evict);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private UserDetails index(String email, UserDetails userDetails) {
+    Long id = idOf(userDetails);
+    if (id != null) {
+      emailsById.put(id, email);
+    }
+    return userDetails;
+  }
+
+  private void unindex(String email, UserDetails userDetails) {
+    Long id = idOf(userDetails);
+    if (id != null) {
+      emailsById.remove(id, email);
+    }
+  }
+
+  private static Long idOf(UserDetails userDetails) {
+    return userDetails instanceof UserDetailsImpl ? ((UserDetailsImpl) userDetails).getId() : null;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, "userDetails");
+  }
+}
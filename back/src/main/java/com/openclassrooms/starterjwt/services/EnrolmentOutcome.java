@@ -0,0 +1,10 @@
+package com.openclassrooms.starterjwt.services;
+
+public enum EnrolmentOutcome {
+    PARTICIPATING,
+    WAITLISTED,
+    REMOVED,
+    ALREADY_ENROLLED,
+    NOT_ENROLLED,
+    UNKNOWN_USER
+}
@@ -0,0 +1,51 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.ReactiveReadRepository;
+import com.openclassrooms.starterjwt.repository.projection.SessionParticipantView;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+public class ReactiveReadService {
+    private final ReactiveReadRepository reactiveReadRepository;
+
+    public ReactiveReadService(ReactiveReadRepository reactiveReadRepository) {
+        this.reactiveReadRepository = reactiveReadRepository;
+    }
+
+    // Only the rows of the session being grouped are held in memory
+    public Flux<Tuple2<SessionView, List<Long>>> findAllViews() {
+        return this.reactiveReadRepository.findViewsWithParticipants()
+                .bufferUntilChanged(SessionParticipantView::getId)
+                .map(ReactiveReadService::toViewWithUsers);
+    }
+
+    public Mono<Tuple2<SessionView, List<Long>>> findViewById(Long id) {
+        return this.reactiveReadRepository.findViewWithParticipantsById(id)
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(ReactiveReadService::toViewWithUsers);
+    }
+
+    public Flux<Teacher> findAllTeachers() {
+        return this.reactiveReadRepository.findAllTeachers();
+    }
+
+    private static Tuple2<SessionView, List<Long>> toViewWithUsers(List<SessionParticipantView> rows) {
+        List<Long> userIds = rows.stream()
+                .map(SessionParticipantView::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return Tuples.of(rows.get(0), userIds);
+    }
+}
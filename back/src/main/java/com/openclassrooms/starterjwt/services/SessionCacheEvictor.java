@@ -0,0 +1,51 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Invalidates the second-level cache entries of one session, its row and its Session.users collection,
+ * when its counters or PARTICIPATE rows are written with SQL that Hibernate does not track.
+ * Must be called inside the writing transaction: the entries stay soft-locked until it completes, like
+ * Hibernate's own updates, so a concurrent load cannot put the old state back in the cache.
+ */
+@Component
+public class SessionCacheEvictor {
+    private static final String USERS_ROLE = Session.class.getName() + ".users";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void evict(Long sessionId) {
+        SessionImplementor session = this.entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        MetamodelImplementor metamodel = factory.getMetamodel();
+
+        EntityPersister entityPersister = metamodel.entityPersister(Session.class);
+        if (entityPersister.canWriteToCache()) {
+            lock(session, entityPersister.getCacheAccessStrategy(), entityPersister.getCacheAccessStrategy()
+                    .generateCacheKey(sessionId, entityPersister, factory, session.getTenantIdentifier()));
+        }
+
+        CollectionPersister collectionPersister = metamodel.collectionPersister(USERS_ROLE);
+        if (collectionPersister.hasCache()) {
+            lock(session, collectionPersister.getCacheAccessStrategy(), collectionPersister.getCacheAccessStrategy()
+                    .generateCacheKey(sessionId, collectionPersister, factory, session.getTenantIdentifier()));
+        }
+    }
+
+    private void lock(SessionImplementor session, CachedDomainDataAccess access, Object key) {
+        SoftLock lock = access.lockItem(session, key, null);
+        session.getActionQueue().registerProcess((success, completed) -> access.unlockItem(completed, key, lock));
+    }
+}
@@ -4,75 +4,442 @@ import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitingListEntry;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionFilter;
+import com.openclassrooms.starterjwt.repository.ParticipationBatchRepository;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitingListRepository;
+import com.openclassrooms.starterjwt.repository.projection.EnrolmentView;
+import com.openclassrooms.starterjwt.repository.projection.ParticipationView;
+import com.openclassrooms.starterjwt.repository.projection.SeatView;
+import com.openclassrooms.starterjwt.repository.projection.SessionParticipantView;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+import com.openclassrooms.starterjwt.repository.projection.TableState;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SessionService {
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BACKOFF_MS = 10;
+
     private final SessionRepository sessionRepository;
 
     private final UserRepository userRepository;
 
-    public SessionService(SessionRepository sessionRepository, UserRepository userRepository) {
+    private final WaitingListRepository waitingListRepository;
+
+    private final ParticipationBatchRepository participationBatchRepository;
+
+    private final SessionCacheEvictor sessionCacheEvictor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SessionService(SessionRepository sessionRepository,
+                          UserRepository userRepository,
+                          WaitingListRepository waitingListRepository,
+                          ParticipationBatchRepository participationBatchRepository,
+                          SessionCacheEvictor sessionCacheEvictor,
+                          PlatformTransactionManager transactionManager) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
+        this.waitingListRepository = waitingListRepository;
+        this.participationBatchRepository = participationBatchRepository;
+        this.sessionCacheEvictor = sessionCacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Session create(Session session) {
+        countParticipants(session);
         return this.sessionRepository.save(session);
     }
 
+    @Transactional
     public void delete(Long id) {
+        this.waitingListRepository.deleteBySession(id);
         this.sessionRepository.deleteById(id);
     }
 
-    public List<Session> findAll() {
-        return this.sessionRepository.findAll();
+    public List<SessionView> findAllViews() {
+        return this.sessionRepository.findAllViews();
+    }
+
+    public List<ParticipationView> findAllParticipations() {
+        return this.sessionRepository.findAllParticipations();
+    }
+
+    // Hands every session to the action as soon as its rows are read, so only one session is held in memory
+    @Transactional(readOnly = true)
+    public void forEachView(BiConsumer<SessionView, List<Long>> action) {
+        try (Stream<SessionParticipantView> rows = this.sessionRepository.streamViewsWithParticipants()) {
+            SessionView current = null;
+            List<Long> userIds = new ArrayList<>();
+
+            for (Iterator<SessionParticipantView> iterator = rows.iterator(); iterator.hasNext(); ) {
+                SessionParticipantView row = iterator.next();
+                if (current != null && !current.getId().equals(row.getId())) {
+                    action.accept(current, userIds);
+                    userIds = new ArrayList<>();
+                }
+                current = row;
+                if (row.getUserId() != null) {
+                    userIds.add(row.getUserId());
+                }
+            }
+
+            if (current != null) {
+                action.accept(current, userIds);
+            }
+        }
+    }
+
+    public Slice<SessionView> findViews(SessionFilter filter, SessionCursor cursor, Pageable pageable) {
+        if (filter.getTeacherId() != null) {
+            return cursor == null
+                    ? this.sessionRepository.findViewsByTeacher(filter.getTeacherId(), filter.getFrom(), filter.getTo(), pageable)
+                    : this.sessionRepository.findViewsByTeacherAfter(filter.getTeacherId(), filter.getFrom(), filter.getTo(),
+                            cursor.getDate(), cursor.getId(), pageable);
+        }
+
+        return cursor == null
+                ? this.sessionRepository.findViews(filter.getFrom(), filter.getTo(), pageable)
+                : this.sessionRepository.findViewsAfter(filter.getFrom(), filter.getTo(),
+                        cursor.getDate(), cursor.getId(), pageable);
+    }
+
+    public List<ParticipationView> findParticipations(Collection<Long> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return this.sessionRepository.findParticipations(sessionIds);
     }
 
     public Session getById(Long id) {
         return this.sessionRepository.findById(id).orElse(null);
     }
 
+    public String getListETag() {
+        return this.sessionRepository.findTableState().toETag();
+    }
+
+    public String getETag(Long id) {
+        TableState state = this.sessionRepository.findStateById(id);
+        return state.getRowCount() > 0 ? state.toETag() : null;
+    }
+
+    // The version read by the client is required, so every update is checked against concurrent writes.
+    // A missing capacity keeps the stored one: clients that do not know the field must not lift the cap
+    @Transactional
     public Session update(Long id, Session session) {
+        if (session.getVersion() == null) {
+            throw new BadRequestException("version is required to update a session");
+        }
+        Session existing = this.sessionRepository.findById(id).orElseThrow(NotFoundException::new);
+
         session.setId(id);
+        if (session.getCapacity() == null) {
+            session.setCapacity(existing.getCapacity());
+        }
+        reconcileWaitingList(session);
+        countParticipants(session);
+
         return this.sessionRepository.save(session);
     }
 
-    public void participate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        User user = this.userRepository.findById(userId).orElse(null);
-        if (session == null || user == null) {
-            throw new NotFoundException();
+    // Creates the sessions without an id and updates the others; inserts and updates are sent in JDBC batches
+    @Transactional
+    public List<Session> saveAll(List<Session> sessions) {
+        Set<Long> ids = sessions.stream()
+                .map(Session::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Session> existing = this.sessionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Session::getId, Function.identity()));
+        Set<Long> waitlisted = ids.isEmpty()
+                ? Collections.emptySet()
+                : this.waitingListRepository.findSessionIdsWithEntries(ids);
+
+        for (Session session : sessions) {
+            if (session.getId() != null) {
+                Session current = existing.get(session.getId());
+                if (current == null) {
+                    throw new NotFoundException();
+                }
+                if (session.getVersion() == null) {
+                    throw new BadRequestException("version is required to update a session");
+                }
+                if (session.getCapacity() == null) {
+                    session.setCapacity(current.getCapacity());
+                }
+                if (waitlisted.contains(session.getId())) {
+                    reconcileWaitingList(session);
+                }
+            }
+            countParticipants(session);
         }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(alreadyParticipate) {
+        return this.sessionRepository.saveAll(sessions);
+    }
+
+    // Users seated by the request leave the waiting list, then the free seats go to the longest waiting users.
+    // Runs before the versioned save, so a concurrent enrolment makes the save fail instead of skipping the queue
+    private void reconcileWaitingList(Session session) {
+        if (session.getUsers() == null) {
+            session.setUsers(new HashSet<>());
+        }
+        Set<User> users = session.getUsers();
+
+        List<Long> seated = users.stream().map(User::getId).collect(Collectors.toList());
+        if (!seated.isEmpty()) {
+            this.waitingListRepository.deleteEntries(session.getId(), seated);
+        }
+
+        if (session.getCapacity() != null && users.size() >= session.getCapacity()) {
+            return;
+        }
+
+        Pageable next = session.getCapacity() != null
+                ? PageRequest.of(0, session.getCapacity() - users.size())
+                : Pageable.unpaged();
+        List<WaitingListEntry> promoted = this.waitingListRepository.findBySessionIdOrderByIdAsc(session.getId(), next);
+        if (!promoted.isEmpty()) {
+            this.waitingListRepository.deleteAllInBatch(promoted);
+            users.addAll(this.userRepository.findAllById(promoted.stream()
+                    .map(WaitingListEntry::getUserId)
+                    .collect(Collectors.toList())));
+        }
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return new HashSet<>(this.sessionRepository.findExistingIds(ids));
+    }
+
+    public boolean exceedsCapacity(Session session) {
+        int participants = session.getUsers() != null ? session.getUsers().size() : 0;
+        return session.getCapacity() != null && participants > session.getCapacity();
+    }
+
+    private void countParticipants(Session session) {
+        if (exceedsCapacity(session)) {
             throw new BadRequestException();
         }
 
-        session.getUsers().add(user);
+        session.setParticipantCount(session.getUsers() != null ? session.getUsers().size() : 0);
+    }
+
+    public ParticipationStatus participate(Long id, Long userId) {
+        return executeWithRetry(() -> {
+            if (!this.userRepository.existsById(userId)) {
+                throw new NotFoundException();
+            }
 
-        this.sessionRepository.save(session);
+            if (this.sessionRepository.countParticipation(id, userId) > 0
+                    || this.waitingListRepository.existsBySessionIdAndUserId(id, userId)) {
+                throw new BadRequestException();
+            }
+
+            // Locks the session row before reading its seats, so a seat released by a concurrent leaver is
+            // either seen here or released after this user is on the waiting list, where the leaver promotes them
+            this.sessionCacheEvictor.evict(id);
+            if (this.sessionRepository.incrementVersion(id) == 0) {
+                throw new NotFoundException();
+            }
+
+            if (this.sessionRepository.claimSeat(id) == 1) {
+                this.sessionRepository.addParticipant(id, userId);
+                return ParticipationStatus.PARTICIPATING;
+            }
+
+            this.waitingListRepository.save(WaitingListEntry.builder().sessionId(id).userId(userId).build());
+            return ParticipationStatus.WAITLISTED;
+        });
     }
 
     public void noLongerParticipate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        if (session == null) {
-            throw new NotFoundException();
-        }
+        executeWithRetry(() -> {
+            this.sessionCacheEvictor.evict(id);
+            if (this.sessionRepository.removeParticipant(id, userId) == 1) {
+                this.sessionRepository.releaseSeat(id);
+                this.waitingListRepository.findFirstBySessionIdOrderByIdAsc(id).ifPresent(next -> {
+                    this.waitingListRepository.delete(next);
+                    this.sessionRepository.addParticipant(id, next.getUserId());
+                    this.sessionRepository.claimSeat(id);
+                });
+                return null;
+            }
+
+            if (this.waitingListRepository.deleteEntry(id, userId) == 1) {
+                return null;
+            }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(!alreadyParticipate) {
+            if (!this.sessionRepository.existsById(id)) {
+                throw new NotFoundException();
+            }
             throw new BadRequestException();
+        });
+    }
+
+    // Seats users in request order while the session has room and puts the others on the waiting list
+    public Map<Long, EnrolmentOutcome> addParticipants(Long id, Collection<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        return executeWithRetry(() -> {
+            this.sessionCacheEvictor.evict(id);
+            if (this.sessionRepository.incrementVersion(id) == 0) {
+                throw new NotFoundException();
+            }
+
+            Map<Long, EnrolmentView> enrolments = findEnrolments(id, requested);
+            SeatView seats = this.sessionRepository.findSeatsById(id);
+            int freeSeats = seats.getCapacity() != null
+                    ? Math.max(0, seats.getCapacity() - seats.getParticipantCount())
+                    : Integer.MAX_VALUE;
+
+            Map<Long, EnrolmentOutcome> result = new LinkedHashMap<>();
+            List<Long> seated = new ArrayList<>();
+            List<Long> waiting = new ArrayList<>();
+            for (Long userId : requested) {
+                EnrolmentView enrolment = enrolments.get(userId);
+                if (enrolment == null) {
+                    result.put(userId, EnrolmentOutcome.UNKNOWN_USER);
+                } else if (enrolment.getParticipantId() != null || enrolment.getWaitingId() != null) {
+                    result.put(userId, EnrolmentOutcome.ALREADY_ENROLLED);
+                } else if (seated.size() < freeSeats) {
+                    seated.add(userId);
+                    result.put(userId, EnrolmentOutcome.PARTICIPATING);
+                } else {
+                    waiting.add(userId);
+                    result.put(userId, EnrolmentOutcome.WAITLISTED);
+                }
+            }
+
+            seat(id, seated);
+            if (!waiting.isEmpty()) {
+                this.participationBatchRepository.addToWaitingList(id, waiting);
+            }
+            return result;
+        });
+    }
+
+    // Removes participants and waiting users, then fills the freed seats from the waiting list
+    public Map<Long, EnrolmentOutcome> removeParticipants(Long id, Collection<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        return executeWithRetry(() -> {
+            this.sessionCacheEvictor.evict(id);
+            if (this.sessionRepository.incrementVersion(id) == 0) {
+                throw new NotFoundException();
+            }
+
+            Map<Long, EnrolmentView> enrolments = findEnrolments(id, requested);
+
+            Map<Long, EnrolmentOutcome> result = new LinkedHashMap<>();
+            List<Long> participants = new ArrayList<>();
+            List<Long> waiting = new ArrayList<>();
+            for (Long userId : requested) {
+                EnrolmentView enrolment = enrolments.get(userId);
+                if (enrolment == null) {
+                    result.put(userId, EnrolmentOutcome.UNKNOWN_USER);
+                } else if (enrolment.getParticipantId() != null) {
+                    participants.add(userId);
+                    result.put(userId, EnrolmentOutcome.REMOVED);
+                } else if (enrolment.getWaitingId() != null) {
+                    waiting.add(userId);
+                    result.put(userId, EnrolmentOutcome.REMOVED);
+                } else {
+                    result.put(userId, EnrolmentOutcome.NOT_ENROLLED);
+                }
+            }
+
+            if (!waiting.isEmpty()) {
+                this.waitingListRepository.deleteEntries(id, waiting);
+            }
+            if (!participants.isEmpty()) {
+                this.sessionRepository.removeParticipants(id, participants);
+                this.sessionRepository.adjustParticipantCount(id, -participants.size());
+                promote(id);
+            }
+            return result;
+        });
+    }
+
+    private Map<Long, EnrolmentView> findEnrolments(Long id, Collection<Long> userIds) {
+        return this.sessionRepository.findEnrolments(id, userIds).stream()
+                .collect(Collectors.toMap(EnrolmentView::getUserId, Function.identity()));
+    }
+
+    private void promote(Long id) {
+        SeatView seats = this.sessionRepository.findSeatsById(id);
+        if (seats.getCapacity() != null && seats.getParticipantCount() >= seats.getCapacity()) {
+            return;
         }
 
-        session.setUsers(session.getUsers().stream().filter(user -> !user.getId().equals(userId)).collect(Collectors.toList()));
+        Pageable next = seats.getCapacity() != null
+                ? PageRequest.of(0, seats.getCapacity() - seats.getParticipantCount())
+                : Pageable.unpaged();
+        List<WaitingListEntry> promoted = this.waitingListRepository.findBySessionIdOrderByIdAsc(id, next);
+        if (!promoted.isEmpty()) {
+            this.waitingListRepository.deleteAllInBatch(promoted);
+            seat(id, promoted.stream().map(WaitingListEntry::getUserId).collect(Collectors.toList()));
+        }
+    }
+
+    private void seat(Long id, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
 
-        this.sessionRepository.save(session);
+        this.participationBatchRepository.addParticipants(id, userIds);
+        this.sessionRepository.adjustParticipantCount(id, userIds.size());
+    }
+
+    private <T> T executeWithRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return this.transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+
+                try {
+                    long backoff = BACKOFF_MS << (attempt - 1);
+                    Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
     }
 }
@@ -2,8 +2,11 @@ package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.projection.TableState;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -21,4 +24,21 @@ public class TeacherService {
     public Teacher findById(Long id) {
         return this.teacherRepository.findById(id).orElse(null);
     }
+
+    public List<Teacher> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return this.teacherRepository.findAllById(ids);
+    }
+
+    public String getListETag() {
+        return this.teacherRepository.findTableState().toETag();
+    }
+
+    public String getETag(Long id) {
+        TableState state = this.teacherRepository.findStateById(id);
+        return state.getRowCount() > 0 ? state.toETag() : null;
+    }
 }
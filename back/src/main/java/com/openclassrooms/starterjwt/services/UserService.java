@@ -2,21 +2,62 @@ package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.jwt.JwtRevocationRegistry;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final JwtRevocationRegistry jwtRevocationRegistry;
+
+    private final UserDetailsCache userDetailsCache;
+
+    public UserService(UserRepository userRepository,
+                       JwtRevocationRegistry jwtRevocationRegistry,
+                       UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.jwtRevocationRegistry = jwtRevocationRegistry;
+        this.userDetailsCache = userDetailsCache;
     }
 
+    // The revocation is stored with the deletion, so it cannot be lost if the instance stops right after.
+    // Cached details are only dropped once the deletion commits: a failed delete leaves the user signed in.
+    @Transactional
     public void delete(Long id) {
         this.userRepository.deleteById(id);
+        this.jwtRevocationRegistry.revoke(id);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.userDetailsCache.evictById(id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsCache.evictById(id);
+            }
+        });
     }
 
     public User findById(Long id) {
         return this.userRepository.findById(id).orElse(null);
     }
+
+    public List<User> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return this.userRepository.findAllById(ids);
+    }
 }
@@ -0,0 +1,108 @@
+package com.openclassrooms.starterjwt.config;
+
+import com.openclassrooms.starterjwt.SpringBootSecurityJwtApplication;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Comparaison de débit entre threads de plateforme et threads virtuels
+ *
+ * Lancer avec : mvn test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=true
+ *
+ * Chaque requête passe par /api/teacher, qui emprunte une connexion au pool Hikari.
+ * Tomcat est limité à quelques threads pour que le mode plateforme sature avant le pool.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("VirtualThreadConfig - Benchmark")
+public class VirtualThreadBenchmarkTest {
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadBenchmarkTest.class);
+
+  private static final int REQUESTS = 2000;
+  private static final int CONCURRENCY = 200;
+
+  @Test
+  @DisplayName("Débit avec les threads de plateforme")
+  public void benchmarkPlatformThreads() throws Exception {
+    run(false);
+  }
+
+  @Test
+  @DisplayName("Débit avec les threads virtuels")
+  public void benchmarkVirtualThreads() throws Exception {
+    assumeTrue(VirtualThreads.isSupported());
+    run(true);
+  }
+
+  private void run(boolean virtualThreads) throws Exception {
+    // ARRANGE
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootSecurityJwtApplication.class)
+      .run(
+        "--server.port=0",
+        "--server.tomcat.threads.max=8",
+        "--spring.jpa.show-sql=false",
+        "--oc.app.jwtStatelessPrincipal=true",
+        "--oc.app.virtualThreads=" + virtualThreads);
+    try {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      HttpClient client = HttpClient.newHttpClient();
+      UserDetailsImpl user = UserDetailsImpl.builder()
+        .id(1L)
+        .username("bench@test.com")
+        .firstName("Bench")
+        .lastName("Mark")
+        .admin(false)
+        .build();
+      String token = context.getBean(JwtUtils.class)
+        .generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+      HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/teacher"))
+        .header("Authorization", "Bearer " + token)
+        .build();
+      send(client, request, CONCURRENCY);
+
+      // ACT
+      long start = System.nanoTime();
+      int ok = send(client, request, REQUESTS);
+      long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+      // ASSERT
+      assertThat(ok).isEqualTo(REQUESTS);
+      logger.info("{} threads: {} requests in {} ms ({} req/s)",
+        virtualThreads ? "virtual" : "platform", REQUESTS, elapsedMs, REQUESTS * 1000L / Math.max(elapsedMs, 1));
+    } finally {
+      context.close();
+    }
+  }
+
+  private int send(HttpClient client, HttpRequest request, int count) {
+    List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+      if (responses.size() % CONCURRENCY == 0) {
+        CompletableFuture.allOf(responses.subList(responses.size() - CONCURRENCY, responses.size())
+          .toArray(new CompletableFuture[0])).join();
+      }
+    }
+
+    return (int) responses.stream().map(CompletableFuture::join).filter(response -> response.statusCode() == 200).count();
+  }
+}
@@ -0,0 +1,96 @@
+package com.openclassrooms.starterjwt.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests unitaires pour VirtualThreadConfig
+ *
+ * Ce qu'on teste :
+ * - le mode est désactivé par défaut et garde les pools de threads classiques
+ * - sans threads virtuels (Java < 21), l'application démarre avec les pools classiques
+ * - avec threads virtuels, Tomcat et les traitements asynchrones utilisent le même exécuteur
+ */
+@DisplayName("VirtualThreadConfig - Tests unitaires")
+public class VirtualThreadConfigTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+    .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+    .withUserConfiguration(VirtualThreadConfig.class);
+
+  @Test
+  @DisplayName("Devrait garder les pools classiques par défaut")
+  public void testDisabledByDefault() {
+    contextRunner.run(context -> {
+      assertThat(context).doesNotHaveBean(VirtualThreadConfig.class);
+      assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class);
+      assertThat(context.getBean(AsyncTaskExecutor.class)).isInstanceOf(ThreadPoolTaskExecutor.class);
+    });
+  }
+
+  @Test
+  @DisplayName("Devrait garder les pools classiques quand la JVM n'a pas de threads virtuels")
+  public void testEnabled_Unsupported() {
+    assumeFalse(VirtualThreads.isSupported());
+
+    contextRunner.withPropertyValues("oc.app.virtualThreads=true").run(context -> {
+      assertThat(context).hasNotFailed();
+      assertThat(context).hasSingleBean(VirtualThreadConfig.class);
+      assertThat(context).doesNotHaveBean(ExecutorService.class);
+      assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class);
+      assertThat(context.getBean(AsyncTaskExecutor.class)).isInstanceOf(ThreadPoolTaskExecutor.class);
+    });
+  }
+
+  @Test
+  @DisplayName("Devrait exécuter les traitements asynchrones sur des threads virtuels")
+  public void testEnabled_Supported() {
+    assumeTrue(VirtualThreads.isSupported());
+
+    contextRunner.withPropertyValues("oc.app.virtualThreads=true").run(context -> {
+      assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+      AsyncTaskExecutor executor = context.getBean(AsyncTaskExecutor.class);
+      assertThat(executor).isInstanceOf(TaskExecutorAdapter.class);
+
+      CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+      executor.execute(() -> virtual.complete(isVirtual(Thread.currentThread())));
+      assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+    });
+  }
+
+  @Test
+  @DisplayName("Devrait refuser de créer un exécuteur sans threads virtuels")
+  public void testNewPerTaskExecutor_Unsupported() {
+    assumeFalse(VirtualThreads.isSupported());
+
+    // ACT & ASSERT
+    assertThat(Runtime.version().feature()).isLessThan(21);
+    assertThatThrownBy(VirtualThreads::newPerTaskExecutor)
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("Java 21");
+  }
+
+  private static boolean isVirtual(Thread thread) {
+    try {
+      return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+}
@@ -5,6 +5,10 @@ import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.payload.request.LoginRequest;
 import com.openclassrooms.starterjwt.payload.request.SignupRequest;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,12 +16,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,7 +48,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     @Autowired
     private MockMvc mockMvc;
 
-    @Autowired
+    @SpyBean
     private UserRepository userRepository;
 
     @Autowired
@@ -37,6 +57,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User testUser;
     private String testPassword = "password123";
 
@@ -44,6 +70,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     public void setUp() {
 
       userRepository.deleteAll();
+      userDetailsCache.invalidateAll();
 
       // Créer un utilisateur de test
       testUser = User.builder()
@@ -59,6 +86,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
     @AfterEach
     public void tearDown() {
+      reset(userRepository);
       // Nettoyer la base de données après chaque test
       userRepository.deleteAll();
     }
@@ -110,6 +138,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         .andExpect(jsonPath("$.admin").value(true));
     }
 
+    @Test
+    @DisplayName("Login - Une seule requête sur USERS")
+    public void testLogin_SingleUserQuery() throws Exception {
+      // ARRANGE
+      LoginRequest loginRequest = new LoginRequest();
+      loginRequest.setEmail("test@test.com");
+      loginRequest.setPassword(testPassword);
+      Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+      statistics.clear();
+
+      // ACT
+      mockMvc.perform(post("/api/auth/login")
+          .contentType(MediaType.APPLICATION_JSON)
+          .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.admin").value(false));
+
+      // ASSERT
+      assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+      assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Login failed - Mot de passe incorrect")
     public void testLogin_WrongPassword_Failure() throws Exception {
@@ -246,6 +296,98 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
       assertThat(userCount).isEqualTo(1); // Seulement l'utilisateur de test du setUp
     }
 
+    @Test
+    @DisplayName("Register failed - Autre contrainte violée, l'erreur n'est pas masquée")
+    public void testRegister_OtherConstraintViolation_Rethrown() throws Exception {
+      // ARRANGE
+      SignupRequest signupRequest = new SignupRequest();
+      signupRequest.setEmail("other@test.com");
+      signupRequest.setFirstName("Jane");
+      signupRequest.setLastName("Smith");
+      signupRequest.setPassword("password123");
+      DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+        new ConstraintViolationException("could not execute statement", new SQLException(), "PUBLIC.CK_USERS_NAME"));
+      doThrow(violation).when(userRepository).save(any(User.class));
+
+      // ACT & ASSERT
+      assertThatThrownBy(() -> mockMvc.perform(post("/api/auth/register")
+          .contentType(MediaType.APPLICATION_JSON)
+          .content(objectMapper.writeValueAsString(signupRequest))))
+        .hasCause(violation);
+    }
+
+    @Test
+    @DisplayName("Register - Un seul INSERT, sans vérification préalable")
+    public void testRegister_SingleStatement() throws Exception {
+      // ARRANGE
+      SignupRequest signupRequest = new SignupRequest();
+      signupRequest.setEmail("single@test.com");
+      signupRequest.setFirstName("Jane");
+      signupRequest.setLastName("Smith");
+      signupRequest.setPassword("password123");
+      Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+      statistics.clear();
+
+      // ACT
+      mockMvc.perform(post("/api/auth/register")
+          .contentType(MediaType.APPLICATION_JSON)
+          .content(objectMapper.writeValueAsString(signupRequest)))
+        .andExpect(status().isOk());
+
+      // ASSERT
+      assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+      assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Register - Inscriptions simultanées avec le même email")
+    public void testRegister_ConcurrentSameEmail() throws Exception {
+      // ARRANGE
+      int threads = 8;
+      SignupRequest signupRequest = new SignupRequest();
+      signupRequest.setEmail("race@test.com");
+      signupRequest.setFirstName("Jane");
+      signupRequest.setLastName("Smith");
+      signupRequest.setPassword("password123");
+      String content = objectMapper.writeValueAsString(signupRequest);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<MvcResult>> results = new ArrayList<>();
+
+      // ACT
+      try {
+        for (int i = 0; i < threads; i++) {
+          results.add(executor.submit(() -> {
+            start.await();
+            return mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content))
+              .andReturn();
+          }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+      } finally {
+        executor.shutdownNow();
+      }
+
+      // ASSERT
+      int created = 0;
+      for (Future<MvcResult> result : results) {
+        MvcResult response = result.get();
+        if (response.getResponse().getStatus() == 200) {
+          created++;
+        } else {
+          assertThat(response.getResponse().getStatus()).isEqualTo(400);
+          assertThat(response.getResponse().getContentAsString()).contains("Error: Email is already taken!");
+        }
+      }
+      assertThat(created).isEqualTo(1);
+      assertThat(userRepository.findByEmail("race@test.com")).isPresent();
+      assertThat(userRepository.count()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Register failed - Email invalide")
     public void testRegister_InvalidEmail_Failure() throws Exception {
@@ -0,0 +1,201 @@
+package com.openclassrooms.starterjwt.controllers.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitingListRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour ReactiveSessionController
+ *
+ * Ce qu'on teste :
+ * - la liste lue par R2DBC a le même contenu que GET /api/session, une session par ligne
+ * - la lecture d'une session par id, 404 et 400
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("ReactiveSessionController - Tests d'intégration")
+public class ReactiveSessionControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private WaitingListRepository waitingListRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private Teacher testTeacher;
+  private User testUser;
+  private Session testSession;
+
+  @BeforeEach
+  public void setUp() {
+    waitingListRepository.deleteAll();
+    sessionRepository.deleteAll();
+    userRepository.deleteAll();
+    teacherRepository.deleteAll();
+
+    testTeacher = teacherRepository.save(Teacher.builder()
+      .firstName("John")
+      .lastName("Doe")
+      .build());
+
+    testUser = userRepository.save(User.builder()
+      .email("user@test.com")
+      .firstName("User")
+      .lastName("Test")
+      .password("password")
+      .admin(false)
+      .build());
+
+    testSession = Session.builder()
+      .name("Yoga Session")
+      .date(new Date())
+      .description("A great yoga session")
+      .teacher(testTeacher)
+      .users(new HashSet<>())
+      .build();
+    testSession.getUsers().add(testUser);
+    testSession = sessionRepository.save(testSession);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    waitingListRepository.deleteAll();
+    sessionRepository.deleteAll();
+    userRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/session - Même contenu que GET /api/session")
+  public void testFindAll_SameContentAsServletEndpoint() throws Exception {
+    // ARRANGE
+    Session other = sessionRepository.save(Session.builder()
+      .name("Empty Session")
+      .date(new Date())
+      .description("Sans participant")
+      .teacher(testTeacher)
+      .users(new HashSet<>())
+      .build());
+    JsonNode expected = objectMapper.readTree(mockMvc.perform(get("/api/session"))
+      .andReturn().getResponse().getContentAsString());
+
+    // ACT
+    MvcResult result = mockMvc.perform(get("/api/reactive/session").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // ASSERT
+    String body = awaitStream(result);
+    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+    assertThat(MediaType.parseMediaType(result.getResponse().getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0).get("users")).hasSize(1);
+    assertThat(lines.get(1).get("id").asLong()).isEqualTo(other.getId());
+    assertThat(lines).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/session - Réponse vide sans session")
+  public void testFindAll_Empty() throws Exception {
+    sessionRepository.deleteAll();
+
+    MvcResult result = mockMvc.perform(get("/api/reactive/session").accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+    assertThat(awaitStream(result)).isEmpty();
+    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/session/{id} - Success")
+  public void testFindById_Success() throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/reactive/session/{id}", testSession.getId()))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.id").value(testSession.getId()))
+      .andExpect(jsonPath("$.name").value("Yoga Session"))
+      .andExpect(jsonPath("$.teacher_id").value(testTeacher.getId()))
+      .andExpect(jsonPath("$.users[0]").value(testUser.getId()));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/session/{id} - Not Found")
+  public void testFindById_NotFound() throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/reactive/session/{id}", 9999L)).andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/session/{id} - Bad Request (Invalid ID)")
+  public void testFindById_BadRequest_InvalidId() throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/reactive/session/{id}", "invalid")).andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/reactive/session - Unauthorized")
+  public void testFindAll_Unauthorized() throws Exception {
+    mockMvc.perform(get("/api/reactive/session").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(status().isUnauthorized());
+  }
+
+  // The stream completes on a driver thread, an asyncDispatch could then race with it on the mock request
+  private String awaitStream(MvcResult result) throws Exception {
+    result.getAsyncResult();
+    return result.getResponse().getContentAsString();
+  }
+}
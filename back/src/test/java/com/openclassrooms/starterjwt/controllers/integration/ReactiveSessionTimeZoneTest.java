@@ -0,0 +1,128 @@
+package com.openclassrooms.starterjwt.controllers.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests d'intégration des dates lues par R2DBC quand la JVM n'est pas en UTC
+ *
+ * Ce qu'on teste :
+ * - /api/reactive/session renvoie les mêmes dates que /api/session, alors que JDBC les stocke en UTC
+ *
+ * Base dédiée : le fuseau par défaut doit être changé avant toute écriture.
+ */
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:timezonedb",
+  "oc.app.r2dbc.url=r2dbc:pool:h2:mem:///timezonedb?maxSize=4"
+})
+@AutoConfigureMockMvc
+@DisplayName("ReactiveSessionController - Fuseau horaire")
+public class ReactiveSessionTimeZoneTest {
+
+  private static TimeZone defaultTimeZone;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @BeforeAll
+  public static void useNonUtcTimeZone() {
+    defaultTimeZone = TimeZone.getDefault();
+    TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+  }
+
+  @AfterAll
+  public static void restoreTimeZone() {
+    TimeZone.setDefault(defaultTimeZone);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/session - Mêmes dates que GET /api/session hors UTC")
+  public void testFindAll_SameDatesAsServletEndpoint() throws Exception {
+    // ARRANGE
+    Teacher teacher = teacherRepository.save(Teacher.builder()
+      .firstName("Margot")
+      .lastName("Delahaye")
+      .build());
+    Date date = Date.from(Instant.parse("2026-03-01T18:30:00Z"));
+    Session session = sessionRepository.save(Session.builder()
+      .name("Tokyo Session")
+      .date(date)
+      .description("Session hors UTC")
+      .teacher(teacher)
+      .users(new HashSet<>())
+      .build());
+    JsonNode expected = objectMapper.readTree(mockMvc.perform(get("/api/session/{id}", session.getId()))
+      .andReturn().getResponse().getContentAsString());
+
+    // ACT
+    MvcResult list = mockMvc.perform(get("/api/reactive/session").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+    list.getAsyncResult();
+    MvcResult byId = mockMvc.perform(get("/api/reactive/session/{id}", session.getId()))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+    JsonNode reactive = objectMapper.readTree(mockMvc.perform(asyncDispatch(byId))
+      .andReturn().getResponse().getContentAsString());
+
+    // ASSERT
+    assertThat(objectMapper.convertValue(expected.get("date"), Date.class)).isEqualTo(date);
+    assertSameDates(objectMapper.readTree(list.getResponse().getContentAsString().trim()), expected);
+    assertSameDates(reactive, expected);
+  }
+
+  // La base arrondit à la microseconde alors que l'entité sauvegardée garde ses nanosecondes ;
+  // une erreur de fuseau, elle, décale d'heures entières
+  private void assertSameDates(JsonNode actual, JsonNode expected) {
+    assertThat(actual.get("date")).isEqualTo(expected.get("date"));
+    for (String field : new String[] {"createdAt", "updatedAt"}) {
+      assertThat(LocalDateTime.parse(actual.get(field).asText()))
+        .isCloseTo(LocalDateTime.parse(expected.get(field).asText()), within(1, ChronoUnit.MILLIS));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.openclassrooms.starterjwt.controllers.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour ReactiveTeacherController
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("ReactiveTeacherController - Tests d'intégration")
+public class ReactiveTeacherControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+  @BeforeEach
+  public void setUp() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/teacher - Un teacher par ligne, dans l'ordre des ids")
+  public void testFindAll_Success() throws Exception {
+    // ARRANGE
+    Teacher first = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+    Teacher second = teacherRepository.save(Teacher.builder().firstName("Jane").lastName("Smith").build());
+
+    // ACT
+    MvcResult result = mockMvc.perform(get("/api/reactive/teacher").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // ASSERT
+    String body = awaitStream(result);
+    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+    assertThat(MediaType.parseMediaType(result.getResponse().getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0).get("id").asLong()).isEqualTo(first.getId());
+    assertThat(lines.get(0).get("lastName").asText()).isEqualTo("Doe");
+    assertThat(lines.get(1).get("id").asLong()).isEqualTo(second.getId());
+    assertThat(lines.get(1).get("firstName").asText()).isEqualTo("Jane");
+    assertThat(lines.get(1).get("createdAt").isNull()).isFalse();
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/teacher - Réponse vide sans teacher")
+  public void testFindAll_Empty() throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/reactive/teacher").accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+    assertThat(awaitStream(result)).isEmpty();
+    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/reactive/teacher - Écrit sur applicationTaskExecutor, dont le pool est borné")
+  public void testFindAll_WrittenByBoundedTaskExecutor() throws Exception {
+    // ARRANGE
+    teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+    long submittedTasks = applicationTaskExecutor.getThreadPoolExecutor().getTaskCount();
+
+    // ACT
+    MvcResult result = mockMvc.perform(get("/api/reactive/teacher").accept(MediaType.APPLICATION_NDJSON)).andReturn();
+    awaitStream(result);
+
+    // ASSERT
+    assertThat(applicationTaskExecutor.getThreadPoolExecutor().getTaskCount()).isGreaterThan(submittedTasks);
+    assertThat(applicationTaskExecutor.getMaxPoolSize()).isEqualTo(32);
+    assertThat(applicationTaskExecutor.getThreadPoolExecutor().getQueue().remainingCapacity()).isLessThanOrEqualTo(500);
+    assertThat(applicationTaskExecutor.getThreadNamePrefix()).isEqualTo("mvc-async-");
+  }
+
+  @Test
+  @DisplayName("GET /api/reactive/teacher - Unauthorized")
+  public void testFindAll_Unauthorized() throws Exception {
+    mockMvc.perform(get("/api/reactive/teacher").accept(MediaType.APPLICATION_NDJSON))
+      .andExpect(status().isUnauthorized());
+  }
+
+  // The stream completes on a driver thread, an asyncDispatch could then race with it on the mock request
+  private String awaitStream(MvcResult result) throws Exception {
+    result.getAsyncResult();
+    return result.getResponse().getContentAsString();
+  }
+}
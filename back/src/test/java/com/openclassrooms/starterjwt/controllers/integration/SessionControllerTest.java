@@ -1,5 +1,6 @@
 package com.openclassrooms.starterjwt.controllers.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.models.Session;
@@ -8,6 +9,9 @@ import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitingListRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,15 +19,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,6 +61,12 @@ public class SessionControllerTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private WaitingListRepository waitingListRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
   private Teacher testTeacher;
   private User testUser;
   private Session testSession;
@@ -57,6 +74,7 @@ public class SessionControllerTest {
   @BeforeEach
   public void setUp() {
     // Nettoyer les données
+    waitingListRepository.deleteAll();
     sessionRepository.deleteAll();
     userRepository.deleteAll();
     teacherRepository.deleteAll();
@@ -84,13 +102,14 @@ public class SessionControllerTest {
       .date(new Date())
       .description("A great yoga session")
       .teacher(testTeacher)
-      .users(new ArrayList<>())
+      .users(new HashSet<>())
       .build();
     testSession = sessionRepository.save(testSession);
   }
 
   @AfterEach
   public void tearDown() {
+    waitingListRepository.deleteAll();
     sessionRepository.deleteAll();
     userRepository.deleteAll();
     teacherRepository.deleteAll();
@@ -145,7 +164,7 @@ public class SessionControllerTest {
       .date(new Date())
       .description("Pilates class")
       .teacher(testTeacher)
-      .users(new ArrayList<>())
+      .users(new HashSet<>())
       .build();
     sessionRepository.save(session2);
 
@@ -167,6 +186,334 @@ public class SessionControllerTest {
       .andExpect(jsonPath("$", hasSize(0)));
   }
 
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session - Nombre de requêtes SQL borné")
+  public void testFindAll_BoundedStatementCount() throws Exception {
+    // Créer plusieurs sessions avec des participants et des professeurs différents
+    for (int i = 0; i < 10; i++) {
+      Teacher teacher = teacherRepository.save(Teacher.builder()
+        .firstName("Teacher" + i)
+        .lastName("Test")
+        .build());
+      User user = userRepository.save(User.builder()
+        .email("participant" + i + "@test.com")
+        .firstName("Participant")
+        .lastName("Test")
+        .password("password")
+        .admin(false)
+        .build());
+      sessionRepository.save(Session.builder()
+        .name("Session " + i)
+        .date(new Date())
+        .description("Session " + i)
+        .teacher(teacher)
+        .users(new HashSet<>(List.of(user, testUser)))
+        .build());
+    }
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    mockMvc.perform(get("/api/session"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(11)))
+      .andExpect(jsonPath("$[10].users", hasSize(2)));
+
+    // Calcul de l'ETag, sessions, participants
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session - Aucune entité chargée pour la liste")
+  public void testFindAll_NoManagedEntities() throws Exception {
+    testSession.getUsers().add(testUser);
+    sessionRepository.save(testSession);
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    mockMvc.perform(get("/api/session"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$[0].teacher_id").value(testTeacher.getId()))
+      .andExpect(jsonPath("$[0].users", hasSize(1)))
+      .andExpect(jsonPath("$[0].users[0]").value(testUser.getId()));
+
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(statistics.getCollectionLoadCount()).isZero();
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session/{id} - 304 sans chargement si l'ETag est inchangé")
+  public void testFindById_NotModified() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/session/{id}", testSession.getId()))
+      .andExpect(status().isOk())
+      .andExpect(header().string("Cache-Control", containsString("no-cache")))
+      .andReturn().getResponse().getHeader("ETag");
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/session/{id}", testSession.getId()).header("If-None-Match", eTag))
+      .andExpect(status().isNotModified())
+      .andExpect(content().string(""));
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+    assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session/{id} - ETag modifié après une inscription")
+  public void testFindById_ETagChangesOnParticipation() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/session/{id}", testSession.getId()))
+      .andReturn().getResponse().getHeader("ETag");
+    mockMvc.perform(post("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isOk());
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/session/{id}", testSession.getId()).header("If-None-Match", eTag))
+      .andExpect(status().isOk())
+      .andExpect(header().string("ETag", not(eTag)))
+      .andExpect(jsonPath("$.users", hasSize(1)));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session - 304 si la table n'a pas changé, 200 après une modification")
+  public void testFindAll_NotModified() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/session"))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader("ETag");
+    assertThat(eTag).isNotNull();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/session").header("If-None-Match", eTag))
+      .andExpect(status().isNotModified());
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    sessionRepository.incrementVersion(testSession.getId());
+    mockMvc.perform(get("/api/session").header("If-None-Match", eTag))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(1)));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?upcoming - Pas d'ETag pour une liste dépendant de l'heure")
+  public void testFindAll_Upcoming_NoETag() throws Exception {
+    mockMvc.perform(get("/api/session").param("upcoming", "true"))
+      .andExpect(status().isOk())
+      .andExpect(header().doesNotExist("ETag"));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?page&size - Première page")
+  public void testFindAll_FirstPage() throws Exception {
+    createSessionsOnConsecutiveDays(4);
+
+    mockMvc.perform(get("/api/session").param("page", "0").param("size", "2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.content", hasSize(2)))
+      .andExpect(jsonPath("$.page").value(0))
+      .andExpect(jsonPath("$.size").value(2))
+      .andExpect(jsonPath("$.hasNext").value(true))
+      .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?cursor - Parcours complet par curseur")
+  public void testFindAll_KeysetCursor() throws Exception {
+    createSessionsOnConsecutiveDays(4);
+
+    List<String> names = new ArrayList<>();
+    String cursor = null;
+    do {
+      MockHttpServletRequestBuilder request = get("/api/session").param("size", "2");
+      if (cursor != null) {
+        request = request.param("cursor", cursor);
+      }
+      MvcResult result = mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andReturn();
+
+      JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+      body.get("content").forEach(session -> names.add(session.get("name").asText()));
+      cursor = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+    } while (cursor != null);
+
+    // testSession (aujourd'hui) puis les sessions des jours suivants, dans l'ordre (date, id)
+    assertThat(names).containsExactly("Yoga Session", "Day 1", "Day 2", "Day 3", "Day 4");
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?cursor - Bad Request (curseur invalide)")
+  public void testFindAll_InvalidCursor() throws Exception {
+    mockMvc.perform(get("/api/session").param("cursor", "not-a-cursor"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?cursor - Bad Request même avec un If-None-Match valide")
+  public void testFindAll_InvalidParams_WithMatchingETag() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/session"))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader("ETag");
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/session").param("cursor", "not-a-cursor").header("If-None-Match", eTag))
+      .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/session").param("size", "1000").header("If-None-Match", eTag))
+      .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/session").param("from", "yesterday").header("If-None-Match", eTag))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?size - Bad Request (taille hors limites)")
+  public void testFindAll_InvalidPageSize() throws Exception {
+    mockMvc.perform(get("/api/session").param("size", "1000"))
+      .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/session").param("size", "abc"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?from&to - Sessions de la plage de dates")
+  public void testFindAll_DateRange() throws Exception {
+    createSessionsOnConsecutiveDays(4);
+    long today = testSession.getDate().getTime();
+
+    mockMvc.perform(get("/api/session")
+        .param("from", new Date(today + 86400000L).toInstant().toString())
+        .param("to", new Date(today + 3 * 86400000L).toInstant().toString()))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(2)))
+      .andExpect(jsonPath("$[0].name").value("Day 1"))
+      .andExpect(jsonPath("$[1].name").value("Day 2"));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?upcoming - Sessions à venir uniquement, paginées")
+  public void testFindAll_Upcoming() throws Exception {
+    createSessionsOnConsecutiveDays(3);
+    sessionRepository.save(Session.builder()
+      .name("Past Session")
+      .date(new Date(testSession.getDate().getTime() - 86400000L))
+      .description("Session passée")
+      .teacher(testTeacher)
+      .users(new HashSet<>())
+      .build());
+
+    mockMvc.perform(get("/api/session").param("upcoming", "true").param("size", "2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.content", hasSize(2)))
+      .andExpect(jsonPath("$.content[0].name").value("Day 1"))
+      .andExpect(jsonPath("$.content[1].name").value("Day 2"))
+      .andExpect(jsonPath("$.hasNext").value(true));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?teacherId - Sessions d'un professeur")
+  public void testFindAll_Teacher() throws Exception {
+    Teacher otherTeacher = teacherRepository.save(Teacher.builder()
+      .firstName("Jane")
+      .lastName("Smith")
+      .build());
+    sessionRepository.save(Session.builder()
+      .name("Other Session")
+      .date(new Date())
+      .description("Avec un autre professeur")
+      .teacher(otherTeacher)
+      .users(new HashSet<>())
+      .build());
+
+    mockMvc.perform(get("/api/session").param("teacherId", otherTeacher.getId().toString()))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(1)))
+      .andExpect(jsonPath("$[0].name").value("Other Session"));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session?from - Bad Request (date invalide)")
+  public void testFindAll_InvalidDate() throws Exception {
+    mockMvc.perform(get("/api/session").param("from", "yesterday"))
+      .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/session").param("teacherId", "abc"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session/stream - Même contenu que la liste complète")
+  public void testStream_SameContentAsFindAll() throws Exception {
+    // ARRANGE
+    Session other = sessionRepository.save(Session.builder()
+      .name("Empty Session")
+      .date(new Date())
+      .description("Sans participant")
+      .teacher(testTeacher)
+      .users(new HashSet<>())
+      .build());
+    testSession.getUsers().add(testUser);
+    sessionRepository.save(testSession);
+    String expected = mockMvc.perform(get("/api/session"))
+      .andReturn().getResponse().getContentAsString();
+
+    // ACT
+    MvcResult result = mockMvc.perform(get("/api/session/stream"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // ASSERT
+    String streamed = mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+      .andExpect(jsonPath("$", hasSize(2)))
+      .andExpect(jsonPath("$[0].users", hasSize(1)))
+      .andExpect(jsonPath("$[1].id").value(other.getId()))
+      .andExpect(jsonPath("$[1].users", hasSize(0)))
+      .andReturn().getResponse().getContentAsString();
+    assertThat(objectMapper.readTree(streamed)).isEqualTo(objectMapper.readTree(expected));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/session/stream - Tableau vide sans session")
+  public void testStream_Empty() throws Exception {
+    sessionRepository.deleteAll();
+
+    MvcResult result = mockMvc.perform(get("/api/session/stream")).andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().json("[]"));
+  }
+
+  @Test
+  @DisplayName("GET /api/session/stream - Unauthorized")
+  public void testStream_Unauthorized() throws Exception {
+    mockMvc.perform(get("/api/session/stream"))
+      .andExpect(status().isUnauthorized());
+  }
+
   @Test
   @DisplayName("GET /api/session - Unauthorized")
   public void testFindAll_Unauthorized() throws Exception {
@@ -200,6 +547,229 @@ public class SessionControllerTest {
     assertThat(sessions).hasSize(2); // testSession + nouvelle session
   }
 
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session - Participants résolus en une requête")
+  public void testCreate_BatchResolvesUsers() throws Exception {
+    List<Long> userIds = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      userIds.add(userRepository.save(User.builder()
+        .email("member" + i + "@test.com")
+        .firstName("Member")
+        .lastName("Test")
+        .password("password")
+        .admin(false)
+        .build()).getId());
+    }
+
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Crowded Session");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setDescription("Beaucoup de monde");
+    sessionDto.setUsers(userIds);
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    mockMvc.perform(post("/api/session")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(sessionDto)))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.users", hasSize(30)))
+      .andExpect(jsonPath("$.participantCount").value(30));
+
+    // Un SELECT pour les utilisateurs et un pour le professeur, quel que soit le nombre de participants
+    assertThat(statistics.getEntityLoadCount()).isEqualTo(31);
+    assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session - Bad Request (identifiants inconnus)")
+  public void testCreate_UnknownIds() throws Exception {
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("New Yoga Session");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId() + 1000);
+    sessionDto.setDescription("Brand new session");
+    sessionDto.setUsers(List.of(testUser.getId(), testUser.getId() + 1000));
+
+    mockMvc.perform(post("/api/session")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(sessionDto)))
+      .andExpect(status().isBadRequest());
+
+    assertThat(sessionRepository.findAll()).hasSize(1);
+  }
+
+  // ==================== Tests pour POST /api/session/batch ====================
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/batch - 500 sessions insérées par lots")
+  public void testSaveAll_BatchedInserts() throws Exception {
+    // ARRANGE
+    List<SessionDto> sessionDtos = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      SessionDto sessionDto = new SessionDto();
+      sessionDto.setName("Season " + i);
+      sessionDto.setDate(new Date());
+      sessionDto.setTeacher_id(testTeacher.getId());
+      sessionDto.setDescription("Imported session");
+      sessionDto.setUsers(List.of(testUser.getId()));
+      sessionDtos.add(sessionDto);
+    }
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // ACT
+    mockMvc.perform(post("/api/session/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(sessionDtos)))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(500)))
+      .andExpect(jsonPath("$[499].id").isNumber())
+      .andExpect(jsonPath("$[499].participantCount").value(1));
+
+    // ASSERT
+    // Résolution des références, séquence (par blocs de 50), puis 10 lots de sessions et 10 de participants
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(40);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(500);
+    assertThat(sessionRepository.count()).isEqualTo(501);
+    assertThat(sessionRepository.findAllParticipations()).hasSize(500);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/batch - Création et mise à jour dans la même requête")
+  public void testSaveAll_CreateAndUpdate() throws Exception {
+    // ARRANGE
+    SessionDto update = new SessionDto();
+    update.setId(testSession.getId());
+    update.setName("Renamed Session");
+    update.setDate(new Date());
+    update.setTeacher_id(testTeacher.getId());
+    update.setDescription("Renamed");
+    update.setVersion(testSession.getVersion());
+    SessionDto creation = new SessionDto();
+    creation.setName("Created Session");
+    creation.setDate(new Date());
+    creation.setTeacher_id(testTeacher.getId());
+    creation.setDescription("Created");
+
+    // ACT
+    mockMvc.perform(post("/api/session/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(update, creation))))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$[0].id").value(testSession.getId()))
+      .andExpect(jsonPath("$[0].name").value("Renamed Session"))
+      .andExpect(jsonPath("$[1].name").value("Created Session"));
+
+    // ASSERT
+    assertThat(sessionRepository.count()).isEqualTo(2);
+    assertThat(sessionRepository.findById(testSession.getId()).orElseThrow().getName()).isEqualTo("Renamed Session");
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/batch - Bad Request (mise à jour sans version)")
+  public void testSaveAll_UpdateWithoutVersion() throws Exception {
+    SessionDto update = new SessionDto();
+    update.setId(testSession.getId());
+    update.setName("Renamed Session");
+    update.setDate(new Date());
+    update.setTeacher_id(testTeacher.getId());
+    update.setDescription("Renamed");
+
+    mockMvc.perform(post("/api/session/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(update))))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$[0].errors[0]").value("version: required to update a session"));
+    assertThat(sessionRepository.findById(testSession.getId()).orElseThrow().getName()).isEqualTo("Yoga Session");
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/batch - Erreurs par élément et aucune écriture")
+  public void testSaveAll_PerItemErrors() throws Exception {
+    // ARRANGE
+    SessionDto valid = new SessionDto();
+    valid.setName("Valid Session");
+    valid.setDate(new Date());
+    valid.setTeacher_id(testTeacher.getId());
+    valid.setDescription("Valid");
+    SessionDto blank = new SessionDto();
+    blank.setName("");
+    blank.setDate(new Date());
+    blank.setTeacher_id(testTeacher.getId());
+    blank.setDescription("Blank name");
+    SessionDto unknown = new SessionDto();
+    unknown.setId(testSession.getId() + 1000);
+    unknown.setName("Unknown references");
+    unknown.setDate(new Date());
+    unknown.setTeacher_id(testTeacher.getId() + 1000);
+    unknown.setDescription("Unknown");
+    unknown.setUsers(List.of(testUser.getId() + 1000));
+    SessionDto full = new SessionDto();
+    full.setName("Full Session");
+    full.setDate(new Date());
+    full.setTeacher_id(testTeacher.getId());
+    full.setDescription("Too many users");
+    full.setCapacity(1);
+    full.setUsers(List.of(testUser.getId(), testUser.getId()));
+
+    // ACT & ASSERT
+    mockMvc.perform(post("/api/session/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(valid, blank, unknown, full))))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$", hasSize(2)))
+      .andExpect(jsonPath("$[0].index").value(1))
+      .andExpect(jsonPath("$[0].errors[0]", startsWith("name:")))
+      .andExpect(jsonPath("$[1].index").value(2))
+      .andExpect(jsonPath("$[1].errors", hasSize(3)));
+    assertThat(sessionRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/batch - Bad Request (plus de places que de participants)")
+  public void testSaveAll_CapacityExceeded() throws Exception {
+    User other = userRepository.save(User.builder()
+      .email("other@test.com")
+      .firstName("Other")
+      .lastName("User")
+      .password("password")
+      .admin(false)
+      .build());
+    SessionDto full = new SessionDto();
+    full.setName("Full Session");
+    full.setDate(new Date());
+    full.setTeacher_id(testTeacher.getId());
+    full.setDescription("Too many users");
+    full.setCapacity(1);
+    full.setUsers(List.of(testUser.getId(), other.getId()));
+
+    mockMvc.perform(post("/api/session/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(full))))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$[0].errors[0]").value("capacity: more users than seats"));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/batch - Bad Request (lot vide)")
+  public void testSaveAll_Empty() throws Exception {
+    mockMvc.perform(post("/api/session/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[]"))
+      .andExpect(status().isBadRequest());
+  }
+
   @Test
   @WithMockUser
   @DisplayName("POST /api/session - Validation error (name blank)")
@@ -290,6 +860,7 @@ public class SessionControllerTest {
     sessionDto.setDate(new Date());
     sessionDto.setTeacher_id(testTeacher.getId());
     sessionDto.setDescription("Updated description");
+    sessionDto.setVersion(testSession.getVersion());
 
     mockMvc.perform(put("/api/session/{id}", testSession.getId())
         .contentType(MediaType.APPLICATION_JSON)
@@ -336,6 +907,140 @@ public class SessionControllerTest {
       .andExpect(status().isBadRequest());
   }
 
+  @Test
+  @WithMockUser
+  @DisplayName("PUT /api/session/{id} - Bad Request (version absente)")
+  public void testUpdate_MissingVersion() throws Exception {
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Updated Session");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setDescription("Updated description");
+
+    mockMvc.perform(put("/api/session/{id}", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(sessionDto)))
+      .andExpect(status().isBadRequest());
+
+    assertThat(sessionRepository.findById(testSession.getId()).orElseThrow().getName()).isEqualTo("Yoga Session");
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("PUT /api/session/{id} - Conflict (version périmée)")
+  public void testUpdate_StaleVersion() throws Exception {
+    Long staleVersion = testSession.getVersion();
+    sessionRepository.incrementVersion(testSession.getId());
+
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Updated Session");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setDescription("Updated description");
+    sessionDto.setVersion(staleVersion);
+
+    mockMvc.perform(put("/api/session/{id}", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(sessionDto)))
+      .andExpect(status().isConflict());
+
+    assertThat(sessionRepository.findById(testSession.getId()).orElseThrow().getName()).isEqualTo("Yoga Session");
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("PUT /api/session/{id} - Capacité augmentée : la liste d'attente est promue dans l'ordre")
+  public void testUpdate_CapacityGrows_PromotesWaitingList() throws Exception {
+    // ARRANGE
+    List<Long> userIds = createWaitlistedSession(2, 5);
+
+    // ACT
+    mockMvc.perform(put("/api/session/{id}", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(updateDto(4, userIds.subList(0, 2)))))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.users", hasSize(4)))
+      .andExpect(jsonPath("$.participantCount").value(4));
+
+    // ASSERT
+    assertThat(sessionRepository.findParticipations(List.of(testSession.getId())))
+      .extracting(participation -> participation.getUserId())
+      .containsExactlyInAnyOrderElementsOf(userIds.subList(0, 4));
+    assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(testSession.getId(), Pageable.unpaged()))
+      .extracting(entry -> entry.getUserId())
+      .containsExactly(userIds.get(4));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("PUT /api/session/{id} - Sans capacité : la capacité et la liste d'attente sont conservées")
+  public void testUpdate_WithoutCapacity_KeepsCapacityAndWaitingList() throws Exception {
+    // ARRANGE
+    List<Long> userIds = createWaitlistedSession(2, 3);
+
+    // ACT
+    mockMvc.perform(put("/api/session/{id}", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(updateDto(null, userIds.subList(0, 2)))))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.capacity").value(2));
+
+    // ASSERT
+    Session updated = sessionRepository.findById(testSession.getId()).orElseThrow();
+    assertThat(updated.getCapacity()).isEqualTo(2);
+    assertThat(updated.getParticipantCount()).isEqualTo(2);
+    assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(testSession.getId(), Pageable.unpaged()))
+      .extracting(entry -> entry.getUserId())
+      .containsExactly(userIds.get(2));
+    mockMvc.perform(post("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isAccepted());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("PUT /api/session/{id} - Un utilisateur en attente placé par la requête quitte la liste d'attente")
+  public void testUpdate_SeatsWaitingUser_RemovedFromWaitingList() throws Exception {
+    // ARRANGE
+    List<Long> userIds = createWaitlistedSession(2, 3);
+
+    // ACT
+    mockMvc.perform(put("/api/session/{id}", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(updateDto(3, List.of(userIds.get(0), userIds.get(2))))))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.users", hasSize(2)));
+
+    // ASSERT
+    assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(testSession.getId(), Pageable.unpaged())).isEmpty();
+    assertThat(sessionRepository.findParticipations(List.of(testSession.getId())))
+      .extracting(participation -> participation.getUserId())
+      .containsExactlyInAnyOrder(userIds.get(0), userIds.get(2));
+  }
+
+  // Seats the first users up to the capacity and puts the others on the waiting list, in order
+  private List<Long> createWaitlistedSession(int capacity, int users) throws Exception {
+    testSession.setCapacity(capacity);
+    testSession = sessionRepository.save(testSession);
+    List<Long> userIds = createUsers(users);
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"ADD\",\"userIds\":" + objectMapper.writeValueAsString(userIds) + "}"))
+      .andExpect(status().isOk());
+    return userIds;
+  }
+
+  private SessionDto updateDto(Integer capacity, List<Long> users) {
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Updated Session");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setDescription("Updated description");
+    sessionDto.setCapacity(capacity);
+    sessionDto.setUsers(users);
+    sessionDto.setVersion(sessionRepository.findById(testSession.getId()).orElseThrow().getVersion());
+    return sessionDto;
+  }
+
   @Test
   @DisplayName("PUT /api/session/{id} - Unauthorized")
   public void testUpdate_Unauthorized() throws Exception {
@@ -387,6 +1092,117 @@ public class SessionControllerTest {
       .andExpect(status().isUnauthorized());
   }
 
+  // ==================== Tests pour POST /api/session/{id}/participants ====================
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/{id}/participants - Ajout groupé avec liste d'attente")
+  public void testUpdateParticipants_Add() throws Exception {
+    // ARRANGE
+    testSession.setCapacity(20);
+    testSession = sessionRepository.save(testSession);
+    mockMvc.perform(post("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isOk());
+    List<Long> userIds = new ArrayList<>(List.of(testUser.getId()));
+    userIds.addAll(createUsers(25));
+    userIds.add(testUser.getId() + 1000);
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // ACT
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"ADD\",\"userIds\":" + objectMapper.writeValueAsString(userIds) + "}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(27)))
+      .andExpect(jsonPath("$[0].outcome").value("ALREADY_ENROLLED"))
+      .andExpect(jsonPath("$[1].outcome").value("PARTICIPATING"))
+      .andExpect(jsonPath("$[19].outcome").value("PARTICIPATING"))
+      .andExpect(jsonPath("$[20].outcome").value("WAITLISTED"))
+      .andExpect(jsonPath("$[25].outcome").value("WAITLISTED"))
+      .andExpect(jsonPath("$[26].outcome").value("UNKNOWN_USER"));
+
+    // ASSERT
+    // Version, existence, places, lot PARTICIPATE, compteur, lot WAITING_LIST
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    assertThat(sessionRepository.findById(testSession.getId()).orElseThrow().getParticipantCount()).isEqualTo(20);
+    assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(testSession.getId(), Pageable.unpaged())).hasSize(6);
+    mockMvc.perform(get("/api/session/{id}", testSession.getId()))
+      .andExpect(jsonPath("$.users", hasSize(20)));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/{id}/participants - Retrait groupé et promotion de la liste d'attente")
+  public void testUpdateParticipants_Remove() throws Exception {
+    // ARRANGE
+    testSession.setCapacity(3);
+    testSession = sessionRepository.save(testSession);
+    List<Long> userIds = createUsers(6);
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"ADD\",\"userIds\":" + objectMapper.writeValueAsString(userIds) + "}"))
+      .andExpect(status().isOk());
+
+    // ACT
+    List<Long> removed = List.of(userIds.get(0), userIds.get(1), userIds.get(4), testUser.getId());
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"REMOVE\",\"userIds\":" + objectMapper.writeValueAsString(removed) + "}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$[0].outcome").value("REMOVED"))
+      .andExpect(jsonPath("$[1].outcome").value("REMOVED"))
+      .andExpect(jsonPath("$[2].outcome").value("REMOVED"))
+      .andExpect(jsonPath("$[3].outcome").value("NOT_ENROLLED"));
+
+    // ASSERT
+    assertThat(sessionRepository.findParticipations(List.of(testSession.getId())))
+      .extracting(participation -> participation.getUserId())
+      .containsExactlyInAnyOrder(userIds.get(2), userIds.get(3), userIds.get(5));
+    assertThat(sessionRepository.findById(testSession.getId()).orElseThrow().getParticipantCount()).isEqualTo(3);
+    assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(testSession.getId(), Pageable.unpaged())).isEmpty();
+    mockMvc.perform(get("/api/session/{id}", testSession.getId()))
+      .andExpect(jsonPath("$.users", hasSize(3)));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/{id}/participants - Not Found")
+  public void testUpdateParticipants_NotFound() throws Exception {
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId() + 1000)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"ADD\",\"userIds\":[" + testUser.getId() + "]}"))
+      .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST /api/session/{id}/participants - Bad Request (action ou liste invalide)")
+  public void testUpdateParticipants_BadRequest() throws Exception {
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"MOVE\",\"userIds\":[" + testUser.getId() + "]}"))
+      .andExpect(status().isBadRequest());
+    mockMvc.perform(post("/api/session/{id}/participants", testSession.getId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"action\":\"ADD\",\"userIds\":[]}"))
+      .andExpect(status().isBadRequest());
+  }
+
+  private List<Long> createUsers(int count) {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ids.add(userRepository.save(User.builder()
+        .email("group" + i + "@test.com")
+        .firstName("Group")
+        .lastName("Member")
+        .password("password")
+        .admin(false)
+        .build()).getId());
+    }
+    return ids;
+  }
+
   // ==================== Tests pour POST /api/session/{id}/participate/{userId} ====================
 
   @Test
@@ -401,7 +1217,78 @@ public class SessionControllerTest {
     Session session = sessionRepository.findById(testSession.getId()).orElse(null);
     assertThat(session).isNotNull();
     assertThat(session.getUsers()).hasSize(1);
-    assertThat(session.getUsers().get(0).getId()).isEqualTo(testUser.getId());
+    assertThat(session.getUsers()).extracting(User::getId).containsExactly(testUser.getId());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST/DELETE /api/session/{id}/participate/{userId} - Une seule ligne écrite")
+  public void testParticipate_SingleRowWrite() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      testSession.getUsers().add(userRepository.save(User.builder()
+        .email("attendee" + i + "@test.com")
+        .firstName("Attendee")
+        .lastName("Test")
+        .password("password")
+        .admin(false)
+        .build()));
+    }
+    sessionRepository.save(testSession);
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    mockMvc.perform(post("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isOk());
+    mockMvc.perform(delete("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isOk());
+
+    // Aucune réécriture de la collection : contrôles, place réservée puis un INSERT, un DELETE et la place libérée
+    assertThat(statistics.getCollectionRecreateCount()).isZero();
+    assertThat(statistics.getCollectionUpdateCount()).isZero();
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+    assertThat(sessionRepository.countParticipation(testSession.getId(), testUser.getId())).isZero();
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("POST/DELETE /api/session/{id}/participate/{userId} - Liste d'attente quand la session est complète")
+  public void testParticipate_Waitlist() throws Exception {
+    testSession.setCapacity(1);
+    testSession = sessionRepository.save(testSession);
+    User waitingUser = userRepository.save(User.builder()
+      .email("waiting@test.com")
+      .firstName("Waiting")
+      .lastName("Test")
+      .password("password")
+      .admin(false)
+      .build());
+
+    mockMvc.perform(post("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isOk());
+    mockMvc.perform(post("/api/session/{id}/participate/{userId}", testSession.getId(), waitingUser.getId()))
+      .andExpect(status().isAccepted());
+    mockMvc.perform(get("/api/session/{id}", testSession.getId()))
+      .andExpect(jsonPath("$.participantCount").value(1))
+      .andExpect(jsonPath("$.users", contains(testUser.getId().intValue())));
+
+    // Le départ du participant libère la place pour le premier en liste d'attente
+    mockMvc.perform(delete("/api/session/{id}/participate/{userId}", testSession.getId(), testUser.getId()))
+      .andExpect(status().isOk());
+    mockMvc.perform(get("/api/session/{id}", testSession.getId()))
+      .andExpect(jsonPath("$.participantCount").value(1))
+      .andExpect(jsonPath("$.users", contains(waitingUser.getId().intValue())));
+  }
+
+  @Test
+  @DisplayName("PARTICIPATE - La clé primaire (session_id, user_id) refuse les doublons")
+  public void testParticipate_CompositeKey() {
+    sessionRepository.addParticipant(testSession.getId(), testUser.getId());
+
+    assertThatThrownBy(() -> sessionRepository.addParticipant(testSession.getId(), testUser.getId()))
+      .isInstanceOf(DataIntegrityViolationException.class);
+    assertThat(sessionRepository.countParticipation(testSession.getId(), testUser.getId())).isEqualTo(1);
   }
 
   @Test
@@ -575,4 +1462,16 @@ public class SessionControllerTest {
     mockMvc.perform(get("/api/session/{id}", sessionId))
       .andExpect(status().isNotFound());
   }
+
+  private void createSessionsOnConsecutiveDays(int count) {
+    for (int day = 1; day <= count; day++) {
+      sessionRepository.save(Session.builder()
+        .name("Day " + day)
+        .date(new Date(testSession.getDate().getTime() + day * 86400000L))
+        .description("Session du jour " + day)
+        .teacher(testTeacher)
+        .users(new HashSet<>())
+        .build());
+    }
+  }
 }
@@ -105,6 +105,38 @@ public class TeacherControllerTest {
       .andExpect(status().isUnauthorized());
   }
 
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/teacher/{id} - 304 si l'ETag est inchangé")
+  public void testFindById_NotModified() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/teacher/{id}", testTeacher.getId()))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader("ETag");
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/teacher/{id}", testTeacher.getId()).header("If-None-Match", eTag))
+      .andExpect(status().isNotModified())
+      .andExpect(content().string(""));
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/teacher/{id} - 200 après une modification du teacher")
+  public void testFindById_ModifiedAfterUpdate() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/teacher/{id}", testTeacher.getId()))
+      .andReturn().getResponse().getHeader("ETag");
+    Thread.sleep(5);
+    testTeacher.setLastName("Smith");
+    teacherRepository.save(testTeacher);
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/teacher/{id}", testTeacher.getId()).header("If-None-Match", eTag))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.lastName").value("Smith"));
+  }
+
   // ==================== Tests pour GET /api/teacher ====================
 
   @Test
@@ -119,6 +151,25 @@ public class TeacherControllerTest {
       .andExpect(jsonPath("$[0].lastName").value("Doe"));
   }
 
+  @Test
+  @WithMockUser
+  @DisplayName("GET /api/teacher - 304 si la table n'a pas changé, 200 après un ajout")
+  public void testFindAll_NotModified() throws Exception {
+    // ARRANGE
+    String eTag = mockMvc.perform(get("/api/teacher"))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader("ETag");
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/api/teacher").header("If-None-Match", eTag))
+      .andExpect(status().isNotModified());
+
+    teacherRepository.save(Teacher.builder().firstName("Jane").lastName("Smith").build());
+    mockMvc.perform(get("/api/teacher").header("If-None-Match", eTag))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(2)));
+  }
+
   @Test
   @WithMockUser
   @DisplayName("GET /api/teacher - Success with multiple teachers")
@@ -0,0 +1,107 @@
+package com.openclassrooms.starterjwt.controllers.integration;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration d'une suppression de compte annulée, avec des tokens sans état
+ *
+ * Ce qu'on teste :
+ * - un utilisateur inscrit à une session ne peut pas être supprimé (clé étrangère de PARTICIPATE)
+ * - son token reste accepté ensuite : la révocation n'est retenue qu'après le commit
+ */
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:deleterollbackdb",
+  "oc.app.r2dbc.url=r2dbc:pool:h2:mem:///deleterollbackdb?maxSize=4",
+  "oc.app.jwtStatelessPrincipal=true"
+})
+@AutoConfigureMockMvc
+@DisplayName("UserController - Suppression annulée")
+public class UserDeleteRollbackTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @AfterEach
+  public void tearDown() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("DELETE /api/user/{id} - Échec : le token reste accepté")
+  public void testDelete_RolledBack_TokenStillAccepted() throws Exception {
+    // ARRANGE
+    User user = userRepository.save(User.builder()
+      .email("enrolled@test.com")
+      .firstName("John")
+      .lastName("Doe")
+      .password("password123")
+      .admin(false)
+      .build());
+    Teacher teacher = teacherRepository.save(Teacher.builder()
+      .firstName("Margot")
+      .lastName("Delahaye")
+      .build());
+    sessionRepository.save(Session.builder()
+      .name("Yoga")
+      .date(new Date())
+      .description("Session avec un inscrit")
+      .teacher(teacher)
+      .users(new HashSet<>(Set.of(user)))
+      .participantCount(1)
+      .build());
+    UserDetailsImpl userDetails = UserDetailsImpl.fromUser(user);
+    String authorization = "Bearer " + jwtUtils.generateJwtToken(
+      new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+    // ACT
+    assertThatThrownBy(() -> mockMvc.perform(delete("/api/user/{id}", user.getId())
+        .header("Authorization", authorization)))
+      .hasCauseInstanceOf(DataIntegrityViolationException.class);
+
+    // ASSERT
+    assertThat(userRepository.findById(user.getId())).isPresent();
+    mockMvc.perform(get("/api/user/{id}", user.getId())
+        .header("Authorization", authorization))
+      .andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,209 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Date;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration pour le cache de second niveau et CacheRegionsEndpoint
+ *
+ * Ce qu'on teste :
+ * - les teachers sont servis par le cache après la première lecture
+ * - la liste des teachers est servie par le cache de requêtes
+ * - une inscription n'évince que la session concernée, pas les autres sessions en cache
+ * - /actuator/cacheregions expose le taux de succès de chaque région, aux seuls administrateurs
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("CacheRegionsEndpoint - Tests d'intégration")
+public class CacheRegionsEndpointTest {
+
+  private static final String USERS_ROLE = Session.class.getName() + ".users";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TeacherService teacherService;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private SessionService sessionService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Teacher teacher;
+
+  @BeforeEach
+  public void setUp() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+    teacher = teacherRepository.save(Teacher.builder()
+      .firstName("Margot")
+      .lastName("Delahaye")
+      .build());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    sessionRepository.deleteAll();
+    userRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Devrait lire un teacher depuis le cache de second niveau")
+  public void testTeacher_ServedFromCache() {
+    // ARRANGE
+    teacherService.findById(teacher.getId());
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // ACT
+    Teacher cached = teacherService.findById(teacher.getId());
+
+    // ASSERT
+    assertThat(cached.getLastName()).isEqualTo("Delahaye");
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(statistics.getCacheRegionStatistics("teacher").getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Devrait servir la liste des teachers depuis le cache de requêtes")
+  public void testTeacherList_ServedFromQueryCache() {
+    // ARRANGE
+    teacherService.findAll();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // ACT
+    int size = teacherService.findAll().size();
+
+    // ASSERT
+    assertThat(size).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Devrait invalider la liste des teachers après une écriture")
+  public void testTeacherList_InvalidatedOnWrite() {
+    // ARRANGE
+    teacherService.findAll();
+
+    // ACT
+    teacherRepository.save(Teacher.builder()
+      .firstName("Hélène")
+      .lastName("Thiercelin")
+      .build());
+
+    // ASSERT
+    assertThat(teacherService.findAll()).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Devrait garder les autres sessions en cache après une inscription")
+  public void testParticipate_OtherSessionStaysCached() {
+    // ARRANGE
+    Session enrolled = sessionRepository.save(newSession("Enrolled"));
+    Session other = sessionRepository.save(newSession("Other"));
+    User user = userRepository.save(User.builder()
+      .email("cache@test.com")
+      .firstName("Cache")
+      .lastName("Test")
+      .password("password")
+      .admin(false)
+      .build());
+    Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    cache.evictAllRegions();
+    sessionService.getById(enrolled.getId());
+    sessionService.getById(other.getId());
+    assertThat(cache.containsEntity(Session.class, other.getId())).isTrue();
+    assertThat(cache.containsCollection(USERS_ROLE, other.getId())).isTrue();
+
+    // ACT
+    sessionService.participate(enrolled.getId(), user.getId());
+
+    // ASSERT
+    assertThat(cache.containsEntity(Session.class, other.getId())).isTrue();
+    assertThat(cache.containsCollection(USERS_ROLE, other.getId())).isTrue();
+    Session reloaded = sessionService.getById(enrolled.getId());
+    assertThat(reloaded.getUsers()).extracting(User::getId).containsExactly(user.getId());
+    assertThat(reloaded.getParticipantCount()).isEqualTo(1);
+    assertThat(reloaded.getVersion()).isGreaterThan(enrolled.getVersion());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("GET /actuator/cacheregions - Taux de succès par région")
+  public void testEndpoint_RegionHitRatios() throws Exception {
+    // ARRANGE
+    teacherService.findById(teacher.getId());
+    teacherService.findById(teacher.getId());
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/actuator/cacheregions"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.teacher.hitCount", greaterThan(0)))
+      .andExpect(jsonPath("$.teacher.hitRatio", greaterThan(0.0)))
+      .andExpect(jsonPath("$.session").exists())
+      .andExpect(jsonPath("$.session-users").exists())
+      .andExpect(jsonPath("$.user").exists());
+  }
+  @Test
+  @DisplayName("GET /actuator/cacheregions - Réservé aux administrateurs")
+  public void testEndpoint_AdminOnly() throws Exception {
+    mockMvc.perform(get("/actuator/cacheregions"))
+      .andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/actuator/cacheregions").with(user("member@test.com")))
+      .andExpect(status().isForbidden());
+  }
+
+
+  private Session newSession(String name) {
+    return Session.builder()
+      .name(name)
+      .date(new Date())
+      .description("Session en cache")
+      .teacher(teacher)
+      .users(new HashSet<>())
+      .build();
+  }
+}
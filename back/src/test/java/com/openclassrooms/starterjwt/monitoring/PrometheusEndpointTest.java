@@ -0,0 +1,101 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration pour /actuator/prometheus
+ *
+ * Ce qu'on teste :
+ * - les latences p50/p99 par endpoint et par méthode de service
+ * - les jauges du pool HikariCP
+ * - les compteurs d'issue de validation des JWT
+ * - /actuator/prometheus et /actuator/health accessibles sans token, pour le scraping et les sondes
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DisplayName("Prometheus - Tests d'intégration")
+public class PrometheusEndpointTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Devrait exposer les percentiles par endpoint et par méthode de service")
+  public void testPrometheus_Latencies() throws Exception {
+    // ARRANGE
+    mockMvc.perform(get("/api/teacher")).andExpect(status().isOk());
+
+    // ACT
+    String metrics = scrape();
+
+    // ASSERT
+    assertThat(metrics)
+      .containsPattern("http_server_requests_seconds\\{[^}]*uri=\"/api/teacher\",quantile=\"0\\.99\"")
+      .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/teacher\"")
+      .containsPattern("yoga_service_seconds\\{[^}]*method=\"findAll\",service=\"TeacherService\",quantile=\"0\\.5\"")
+      .containsPattern("spring_data_repository_invocations_seconds_count\\{[^}]*repository=\"TeacherRepository\"");
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Devrait exposer les jauges du pool HikariCP")
+  public void testPrometheus_HikariGauges() throws Exception {
+    String metrics = scrape();
+
+    assertThat(metrics)
+      .contains("hikaricp_connections_active{")
+      .contains("hikaricp_connections_pending{")
+      .contains("hikaricp_connections_max{");
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Devrait compter les JWT rejetés par raison")
+  public void testPrometheus_JwtOutcomes() throws Exception {
+    // ARRANGE
+    mockMvc.perform(get("/api/teacher").header("Authorization", "Bearer not-a-jwt"));
+
+    // ACT
+    String metrics = scrape();
+
+    // ASSERT
+    assertThat(metrics)
+      .containsPattern("yoga_jwt_validations_total\\{[^}]*outcome=\"malformed\"[^}]*} [1-9]")
+      .contains("yoga_jwt_validations_total{outcome=\"valid\"")
+      .contains("yoga_jwt_revoked_total");
+  }
+
+  @Test
+  @DisplayName("Devrait accepter le scraping sans authentification")
+  public void testPrometheus_Anonymous() throws Exception {
+    assertThat(scrape()).contains("hikaricp_connections");
+  }
+
+  @Test
+  @DisplayName("Devrait répondre aux sondes de santé sans authentification")
+  public void testHealth_Anonymous() throws Exception {
+    mockMvc.perform(get("/actuator/health"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.status").value("UP"));
+  }
+
+  private String scrape() throws Exception {
+    return mockMvc.perform(get("/actuator/prometheus"))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getContentAsString();
+  }
+}
@@ -0,0 +1,77 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ServiceTimingAspect
+ *
+ * Ce qu'on teste :
+ * - un timer par méthode de service appelée, étiqueté par service et méthode
+ * - l'exception levée est reportée dans l'étiquette "exception"
+ */
+@DisplayName("ServiceTimingAspect - Tests unitaires")
+public class ServiceTimingAspectTest {
+
+  private SimpleMeterRegistry registry;
+  private TeacherRepository teacherRepository;
+  private TeacherService teacherService;
+
+  @BeforeEach
+  public void setUp() {
+    registry = new SimpleMeterRegistry();
+    teacherRepository = mock(TeacherRepository.class);
+
+    AspectJProxyFactory factory = new AspectJProxyFactory(new TeacherService(teacherRepository));
+    factory.addAspect(new ServiceTimingAspect(registry));
+    teacherService = factory.getProxy();
+  }
+
+  @Test
+  @DisplayName("Devrait chronométrer chaque appel de méthode")
+  public void testTime_Success() {
+    // ARRANGE
+    when(teacherRepository.findAll()).thenReturn(List.of(new Teacher()));
+    when(teacherRepository.findById(1L)).thenReturn(Optional.empty());
+
+    // ACT
+    teacherService.findAll();
+    teacherService.findAll();
+    teacherService.findById(1L);
+
+    // ASSERT
+    Timer findAll = registry.get(ServiceTimingAspect.METRIC_NAME)
+      .tags("service", "TeacherService", "method", "findAll", "exception", "none")
+      .timer();
+    assertThat(findAll.count()).isEqualTo(2);
+    assertThat(registry.get(ServiceTimingAspect.METRIC_NAME).tag("method", "findById").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Devrait étiqueter l'exception levée et la propager")
+  public void testTime_Exception() {
+    // ARRANGE
+    when(teacherRepository.findAll()).thenThrow(new NotFoundException());
+
+    // ACT & ASSERT
+    assertThatThrownBy(() -> teacherService.findAll()).isInstanceOf(NotFoundException.class);
+    assertThat(registry.get(ServiceTimingAspect.METRIC_NAME)
+      .tags("method", "findAll", "exception", "NotFoundException")
+      .timer().count()).isEqualTo(1);
+  }
+}
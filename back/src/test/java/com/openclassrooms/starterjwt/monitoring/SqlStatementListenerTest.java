@@ -0,0 +1,123 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour SqlStatementListener
+ *
+ * Ce qu'on teste :
+ * - chaque exécution est comptée dans la requête courante et chronométrée par type
+ * - les requêtes lentes sont journalisées avec leurs paramètres et l'endpoint d'origine
+ */
+@ExtendWith(OutputCaptureExtension.class)
+@DisplayName("SqlStatementListener - Tests unitaires")
+public class SqlStatementListenerTest {
+
+  private SqlStatementScope scope;
+
+  @AfterEach
+  public void tearDown() {
+    if (scope != null) {
+      scope.close();
+    }
+  }
+
+  @Test
+  @DisplayName("Devrait compter les exécutions de la requête courante")
+  public void testAfterQuery_CountsInScope() {
+    // ARRANGE
+    SqlStatementListener listener = new SqlStatementListener(1000);
+    scope = SqlStatementScope.open(new MockHttpServletRequest("GET", "/api/session"));
+
+    // ACT
+    listener.afterQuery(execution(5), List.of(query("select * from SESSIONS")));
+    listener.afterQuery(execution(5), List.of(query("select * from PARTICIPATE")));
+
+    // ASSERT
+    assertThat(scope.getStatements()).isEqualTo(2);
+    assertThat(scope.getSlowStatements()).isZero();
+  }
+
+  @Test
+  @DisplayName("Devrait chronométrer les exécutions par type de requête")
+  public void testAfterQuery_TimedByType() {
+    // ARRANGE
+    SqlStatementListener listener = new SqlStatementListener(1000);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    listener.bindTo(registry);
+
+    // ACT
+    listener.afterQuery(execution(5), List.of(query("select * from SESSIONS")));
+    listener.afterQuery(execution(7), List.of(query("insert into SESSIONS (name) values (?)")));
+
+    // ASSERT
+    assertThat(registry.get(SqlStatementListener.METRIC_NAME).tag("type", "select").timer().count()).isEqualTo(1);
+    assertThat(registry.get(SqlStatementListener.METRIC_NAME).tag("type", "insert").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Devrait journaliser une requête lente avec ses paramètres et son origine")
+  public void testAfterQuery_SlowQueryLogged(CapturedOutput output) throws Exception {
+    // ARRANGE
+    SqlStatementListener listener = new SqlStatementListener(50);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session/42");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/session/{id}");
+    scope = SqlStatementScope.open(request);
+    QueryInfo query = query("select * from SESSIONS where id=?");
+    query.getParametersList().add(List.of(new ParameterSetOperation(
+      PreparedStatement.class.getMethod("setLong", int.class, long.class), new Object[]{1, 42L})));
+
+    // ACT
+    listener.afterQuery(execution(80), List.of(query));
+    listener.afterQuery(execution(10), List.of(query("select 1")));
+
+    // ASSERT
+    assertThat(scope.getSlowStatements()).isEqualTo(1);
+    assertThat(output).contains("80 ms in GET /api/session/{id}")
+      .contains("select * from SESSIONS where id=?")
+      .contains("42")
+      .doesNotContain("select 1");
+  }
+
+  @Test
+  @DisplayName("Ne devrait rien compter hors d'une requête HTTP")
+  public void testAfterQuery_NoScope() {
+    // ARRANGE
+    SqlStatementListener listener = new SqlStatementListener(1000);
+
+    // ACT
+    listener.afterQuery(execution(5), List.of(query("select 1")));
+
+    // ASSERT
+    assertThat(SqlStatementScope.current()).isNull();
+  }
+
+  private static ExecutionInfo execution(long elapsedMs) {
+    ExecutionInfo info = new ExecutionInfo();
+    info.setElapsedTime(elapsedMs);
+    info.setSuccess(true);
+    info.setStatementType(StatementType.PREPARED);
+    return info;
+  }
+
+  private static QueryInfo query(String sql) {
+    return new QueryInfo(sql);
+  }
+}
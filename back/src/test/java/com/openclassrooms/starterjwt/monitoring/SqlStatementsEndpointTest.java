@@ -0,0 +1,135 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration pour SqlStatementsEndpoint
+ *
+ * Ce qu'on teste :
+ * - les requêtes SQL sont agrégées par endpoint, avec la méthode du contrôleur
+ * - DELETE /actuator/sqlstatements remet les compteurs à zéro
+ * - les requêtes rejetées avant le contrôleur partagent une seule entrée, quelle que soit l'URI
+ * - l'endpoint est réservé aux administrateurs
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("SqlStatementsEndpoint - Tests d'intégration")
+public class SqlStatementsEndpointTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SqlStatementsEndpoint sqlStatementsEndpoint;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  private Teacher teacher;
+
+  @BeforeEach
+  public void setUp() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+    teacher = teacherRepository.save(Teacher.builder()
+      .firstName("Margot")
+      .lastName("Delahaye")
+      .build());
+    sqlStatementsEndpoint.reset();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    sessionRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Devrait agréger les requêtes SQL par endpoint")
+  public void testEndpoints_AggregatedPerEndpoint() throws Exception {
+    // ARRANGE
+    mockMvc.perform(get("/api/teacher/{id}", teacher.getId())).andExpect(status().isOk());
+    mockMvc.perform(get("/api/teacher/{id}", teacher.getId())).andExpect(status().isOk());
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/actuator/sqlstatements"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$['GET /api/teacher/{id}'].handler").value("TeacherController#findById"))
+      .andExpect(jsonPath("$['GET /api/teacher/{id}'].requests").value(2))
+      .andExpect(jsonPath("$['GET /api/teacher/{id}'].statements").value(greaterThan(0)))
+      .andExpect(jsonPath("$['GET /api/teacher/{id}'].maxStatements").value(greaterThan(0)))
+      .andExpect(jsonPath("$['GET /api/teacher/{id}'].slowStatements").value(0));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Devrait remettre les compteurs à zéro")
+  public void testReset() throws Exception {
+    // ARRANGE
+    mockMvc.perform(get("/api/teacher")).andExpect(status().isOk());
+
+    // ACT
+    mockMvc.perform(delete("/actuator/sqlstatements")).andExpect(status().isNoContent());
+
+    // ASSERT
+    mockMvc.perform(get("/actuator/sqlstatements"))
+      .andExpect(jsonPath("$['GET /api/teacher']").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Devrait refuser l'accès sans authentification")
+  public void testEndpoints_Unauthorized() throws Exception {
+    mockMvc.perform(get("/actuator/sqlstatements"))
+      .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Devrait regrouper les requêtes non authentifiées sous une seule entrée")
+  public void testEndpoints_UnmappedRequestsShareOneEntry() throws Exception {
+    // ARRANGE
+    mockMvc.perform(get("/api/session/1").with(anonymous())).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/api/session/2").with(anonymous())).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/scanner/noise").with(anonymous())).andExpect(status().isUnauthorized());
+
+    // ACT & ASSERT
+    mockMvc.perform(get("/actuator/sqlstatements"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$['GET UNMAPPED'].requests").value(3))
+      .andExpect(jsonPath("$['GET /api/session/1']").doesNotExist())
+      .andExpect(jsonPath("$['GET /api/session/2']").doesNotExist())
+      .andExpect(jsonPath("$['GET /scanner/noise']").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser
+  @DisplayName("Devrait refuser la lecture et la remise à zéro à un membre non administrateur")
+  public void testEndpoints_ForbiddenForMembers() throws Exception {
+    mockMvc.perform(get("/actuator/sqlstatements"))
+      .andExpect(status().isForbidden());
+    mockMvc.perform(delete("/actuator/sqlstatements"))
+      .andExpect(status().isForbidden());
+  }
+}
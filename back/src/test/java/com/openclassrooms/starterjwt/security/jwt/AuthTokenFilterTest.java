@@ -2,6 +2,8 @@ package com.openclassrooms.starterjwt.security.jwt;
 
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,11 @@ import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.servlet.ServletException;
 import java.io.IOException;
+import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -37,6 +41,15 @@ class AuthTokenFilterTest {
   @Mock
   private UserDetailsServiceImpl userDetailsService;
 
+  @Mock
+  private JwtTokenCache jwtTokenCache;
+
+  @Mock
+  private JwtRevocationRegistry jwtRevocationRegistry;
+
+  @Mock
+  private JwtMetrics jwtMetrics;
+
   @InjectMocks
   private AuthTokenFilter authTokenFilter;
 
@@ -74,8 +87,7 @@ class AuthTokenFilterTest {
     String validToken = "valid.jwt.token";
     request.addHeader("Authorization", "Bearer " + validToken);
 
-    when(jwtUtils.validateJwtToken(validToken)).thenReturn(true);
-    when(jwtUtils.getUserNameFromJwtToken(validToken)).thenReturn("test@test.com");
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(validResult("test@test.com"));
     when(userDetailsService.loadUserByUsername("test@test.com")).thenReturn(userDetails);
 
     // ACT
@@ -88,9 +100,9 @@ class AuthTokenFilterTest {
     assertThat(SecurityContextHolder.getContext().getAuthentication().isAuthenticated()).isTrue();
 
     // Vérifier que la chaîne de filtres continue
-    verify(jwtUtils, times(1)).validateJwtToken(validToken);
-    verify(jwtUtils, times(1)).getUserNameFromJwtToken(validToken);
+    verify(jwtUtils, times(1)).parseJwtToken(validToken);
     verify(userDetailsService, times(1)).loadUserByUsername("test@test.com");
+    verify(jwtMetrics).recordValidation(argThat(JwtValidationResult::isValid));
   }
 
   @Test
@@ -100,7 +112,7 @@ class AuthTokenFilterTest {
     String invalidToken = "invalid.jwt.token";
     request.addHeader("Authorization", "Bearer " + invalidToken);
 
-    when(jwtUtils.validateJwtToken(invalidToken)).thenReturn(false);
+    when(jwtUtils.parseJwtToken(invalidToken)).thenReturn(JwtValidationResult.invalid(JwtValidationResult.FailureReason.MALFORMED));
 
     // ACT
     authTokenFilter.doFilterInternal(request, response, filterChain);
@@ -108,9 +120,9 @@ class AuthTokenFilterTest {
     // ASSERT
     assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
 
-    verify(jwtUtils, times(1)).validateJwtToken(invalidToken);
-    verify(jwtUtils, never()).getUserNameFromJwtToken(any());
+    verify(jwtUtils, times(1)).parseJwtToken(invalidToken);
     verify(userDetailsService, never()).loadUserByUsername(any());
+    verify(jwtMetrics).recordValidation(argThat(token -> token.getFailureReason() == JwtValidationResult.FailureReason.MALFORMED));
   }
 
   @Test
@@ -125,7 +137,7 @@ class AuthTokenFilterTest {
     // ASSERT
     assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
 
-    verify(jwtUtils, never()).validateJwtToken(any());
+    verify(jwtUtils, never()).parseJwtToken(any());
     verify(userDetailsService, never()).loadUserByUsername(any());
   }
 
@@ -141,7 +153,7 @@ class AuthTokenFilterTest {
     // ASSERT
     assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
 
-    verify(jwtUtils, never()).validateJwtToken(any());
+    verify(jwtUtils, never()).parseJwtToken(any());
   }
 
   @Test
@@ -156,7 +168,7 @@ class AuthTokenFilterTest {
     // ASSERT
     assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
 
-    verify(jwtUtils, never()).validateJwtToken(any());
+    verify(jwtUtils, never()).parseJwtToken(any());
   }
 
   @Test
@@ -166,8 +178,8 @@ class AuthTokenFilterTest {
     String validToken = "valid.jwt.token";
     request.addHeader("Authorization", "Bearer " + validToken);
 
-    when(jwtUtils.validateJwtToken(validToken)).thenReturn(true);
-    when(jwtUtils.getUserNameFromJwtToken(validToken)).thenThrow(new RuntimeException("JWT parsing error"));
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(validResult("test@test.com"));
+    when(userDetailsService.loadUserByUsername("test@test.com")).thenThrow(new RuntimeException("User lookup error"));
 
     // ACT
     authTokenFilter.doFilterInternal(request, response, filterChain);
@@ -187,8 +199,7 @@ class AuthTokenFilterTest {
     String validToken = "valid.jwt.token";
     request.addHeader("Authorization", "Bearer " + validToken);
 
-    when(jwtUtils.validateJwtToken(validToken)).thenReturn(true);
-    when(jwtUtils.getUserNameFromJwtToken(validToken)).thenReturn("test@test.com");
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(validResult("test@test.com"));
     when(userDetailsService.loadUserByUsername("test@test.com")).thenReturn(userDetails);
 
     // ACT
@@ -196,7 +207,7 @@ class AuthTokenFilterTest {
 
     // ASSERT
     assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-    verify(jwtUtils, times(1)).validateJwtToken(validToken);
+    verify(jwtUtils, times(1)).parseJwtToken(validToken);
   }
 
   @Test
@@ -211,7 +222,7 @@ class AuthTokenFilterTest {
     // ASSERT
     assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
 
-    // Le token vide ("") sera quand même envoyé à validateJwtToken
+    // Le token vide ("") sera quand même envoyé à parseJwtToken
     // On vérifie juste qu'il n'y a pas d'authentification
   }
 
@@ -223,15 +234,136 @@ class AuthTokenFilterTest {
     String expectedUsername = "john@example.com";
     request.addHeader("Authorization", "Bearer " + validToken);
 
-    when(jwtUtils.validateJwtToken(validToken)).thenReturn(true);
-    when(jwtUtils.getUserNameFromJwtToken(validToken)).thenReturn(expectedUsername);
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(validResult(expectedUsername));
     when(userDetailsService.loadUserByUsername(expectedUsername)).thenReturn(userDetails);
 
     // ACT
     authTokenFilter.doFilterInternal(request, response, filterChain);
 
     // ASSERT
-    verify(jwtUtils, times(1)).getUserNameFromJwtToken(validToken);
+    verify(jwtUtils, times(1)).parseJwtToken(validToken);
     verify(userDetailsService, times(1)).loadUserByUsername(expectedUsername);
   }
+
+  // ========== TESTS CACHE DES TOKENS ==========
+
+  @Test
+  @DisplayName("Devrait mettre en cache un token validé")
+  void testDoFilterInternal_CachesVerifiedToken() throws ServletException, IOException {
+    // ARRANGE
+    String validToken = "valid.jwt.token";
+    request.addHeader("Authorization", "Bearer " + validToken);
+    JwtValidationResult result = validResult("test@test.com");
+
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(result);
+    when(userDetailsService.loadUserByUsername("test@test.com")).thenReturn(userDetails);
+
+    // ACT
+    authTokenFilter.doFilterInternal(request, response, filterChain);
+
+    // ASSERT
+    verify(jwtTokenCache, times(1)).put(validToken, result);
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas revalider un token présent dans le cache")
+  void testDoFilterInternal_CachedTokenSkipsValidation() throws ServletException, IOException {
+    // ARRANGE
+    String validToken = "valid.jwt.token";
+    request.addHeader("Authorization", "Bearer " + validToken);
+
+    when(jwtTokenCache.get(validToken)).thenReturn(validResult("test@test.com"));
+    when(userDetailsService.loadUserByUsername("test@test.com")).thenReturn(userDetails);
+
+    // ACT
+    authTokenFilter.doFilterInternal(request, response, filterChain);
+
+    // ASSERT
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    verify(jwtUtils, never()).parseJwtToken(any());
+  }
+
+  // ========== TESTS PRINCIPAL SANS ETAT ==========
+
+  @Test
+  @DisplayName("Devrait reconstruire l'utilisateur depuis les claims sans accès base")
+  void testDoFilterInternal_StatelessPrincipal() throws ServletException, IOException {
+    // ARRANGE
+    ReflectionTestUtils.setField(authTokenFilter, "statelessPrincipal", true);
+    String validToken = "valid.jwt.token";
+    request.addHeader("Authorization", "Bearer " + validToken);
+
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(principalResult());
+
+    // ACT
+    authTokenFilter.doFilterInternal(request, response, filterChain);
+
+    // ASSERT
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    assertThat(principal.getId()).isEqualTo(1L);
+    assertThat(principal.getUsername()).isEqualTo("test@test.com");
+    assertThat(principal.getFirstName()).isEqualTo("John");
+    assertThat(principal.getLastName()).isEqualTo("Doe");
+    assertThat(principal.getAdmin()).isTrue();
+    verify(userDetailsService, never()).loadUserByUsername(any());
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas authentifier un utilisateur dont les tokens sont révoqués")
+  void testDoFilterInternal_StatelessPrincipal_Revoked() throws ServletException, IOException {
+    // ARRANGE
+    ReflectionTestUtils.setField(authTokenFilter, "statelessPrincipal", true);
+    String validToken = "valid.jwt.token";
+    request.addHeader("Authorization", "Bearer " + validToken);
+    JwtValidationResult result = principalResult();
+
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(result);
+    when(jwtRevocationRegistry.isRevoked(1L, result.getIssuedAt())).thenReturn(true);
+
+    // ACT
+    authTokenFilter.doFilterInternal(request, response, filterChain);
+
+    // ASSERT
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    verify(userDetailsService, never()).loadUserByUsername(any());
+    verify(jwtMetrics).recordRevoked();
+  }
+
+  @Test
+  @DisplayName("Devrait charger l'utilisateur en base si le token ne contient pas les claims")
+  void testDoFilterInternal_StatelessPrincipal_LegacyToken() throws ServletException, IOException {
+    // ARRANGE
+    ReflectionTestUtils.setField(authTokenFilter, "statelessPrincipal", true);
+    String validToken = "valid.jwt.token";
+    request.addHeader("Authorization", "Bearer " + validToken);
+
+    when(jwtUtils.parseJwtToken(validToken)).thenReturn(validResult("test@test.com"));
+    when(userDetailsService.loadUserByUsername("test@test.com")).thenReturn(userDetails);
+
+    // ACT
+    authTokenFilter.doFilterInternal(request, response, filterChain);
+
+    // ASSERT
+    assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+  }
+
+  private JwtValidationResult principalResult() {
+    Claims claims = Jwts.claims()
+      .setSubject("test@test.com")
+      .setIssuedAt(new Date())
+      .setExpiration(new Date(System.currentTimeMillis() + 60000));
+    claims.put(JwtValidationResult.CLAIM_ID, 1);
+    claims.put(JwtValidationResult.CLAIM_FIRST_NAME, "John");
+    claims.put(JwtValidationResult.CLAIM_LAST_NAME, "Doe");
+    claims.put(JwtValidationResult.CLAIM_ADMIN, true);
+    return JwtValidationResult.valid(claims);
+  }
+
+  private JwtValidationResult validResult(String subject) {
+    Claims claims = Jwts.claims()
+      .setSubject(subject)
+      .setIssuedAt(new Date())
+      .setExpiration(new Date(System.currentTimeMillis() + 60000));
+    return JwtValidationResult.valid(claims);
+  }
 }
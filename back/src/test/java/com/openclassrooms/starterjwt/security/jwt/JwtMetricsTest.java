@@ -0,0 +1,76 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour JwtMetrics
+ *
+ * Ce qu'on teste :
+ * - un compteur par issue de validation, enregistré dès le démarrage
+ * - le compteur des tokens révoqués
+ */
+@DisplayName("JwtMetrics - Tests Unitaires")
+class JwtMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private JwtMetrics jwtMetrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    jwtMetrics = new JwtMetrics(registry);
+  }
+
+  @Test
+  @DisplayName("Devrait enregistrer un compteur à zéro pour chaque issue")
+  void testCountersRegisteredAtStartup() {
+    // ASSERT
+    assertThat(registry.find(JwtMetrics.VALIDATIONS).counters())
+      .hasSize(JwtValidationResult.FailureReason.values().length + 1)
+      .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    assertThat(registry.get(JwtMetrics.REVOKED).counter().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Devrait compter les tokens valides")
+  void testRecordValidation_Valid() {
+    // ARRANGE
+    Claims claims = Jwts.claims().setSubject("test@test.com");
+
+    // ACT
+    jwtMetrics.recordValidation(JwtValidationResult.valid(claims));
+    jwtMetrics.recordValidation(JwtValidationResult.valid(claims));
+
+    // ASSERT
+    assertThat(registry.get(JwtMetrics.VALIDATIONS).tag("outcome", "valid").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Devrait compter les échecs par raison")
+  void testRecordValidation_Failure() {
+    // ACT
+    jwtMetrics.recordValidation(JwtValidationResult.invalid(JwtValidationResult.FailureReason.EXPIRED));
+
+    // ASSERT
+    assertThat(registry.get(JwtMetrics.VALIDATIONS).tag("outcome", "expired").counter().count()).isEqualTo(1);
+    assertThat(registry.get(JwtMetrics.VALIDATIONS).tag("outcome", "valid").counter().count()).isZero();
+    assertThat(registry.get(JwtMetrics.VALIDATIONS).tag("outcome", "malformed").counter().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Devrait compter les tokens révoqués")
+  void testRecordRevoked() {
+    // ACT
+    jwtMetrics.recordRevoked();
+
+    // ASSERT
+    assertThat(registry.get(JwtMetrics.REVOKED).counter().count()).isEqualTo(1);
+  }
+}
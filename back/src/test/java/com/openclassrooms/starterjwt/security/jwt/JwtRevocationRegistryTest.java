@@ -0,0 +1,176 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import com.openclassrooms.starterjwt.models.JwtRevocation;
+import com.openclassrooms.starterjwt.repository.JwtRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour JwtRevocationRegistry
+ *
+ * Ce qu'on teste :
+ * - les tokens émis avant la révocation sont refusés, pas ceux émis après
+ * - les révocations sont enregistrées en base et relues après un redémarrage
+ * - les révocations faites par une autre instance sont vues après le délai de rafraîchissement
+ * - dans une transaction, la révocation n'est retenue en mémoire qu'après le commit
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtRevocationRegistry - Tests Unitaires")
+class JwtRevocationRegistryTest {
+
+  private static final long EXPIRATION_MS = 3600000;
+
+  @Mock
+  private JwtRevocationRepository jwtRevocationRepository;
+
+  private JwtRevocationRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(jwtRevocationRepository.findByRevokedAtGreaterThan(anyLong())).thenReturn(Collections.emptyList());
+    registry = new JwtRevocationRegistry(jwtRevocationRepository, EXPIRATION_MS, 60000);
+  }
+
+  @Test
+  @DisplayName("Ne devrait rien révoquer par défaut")
+  void testIsRevoked_Default() {
+    assertThat(registry.isRevoked(1L, new Date())).isFalse();
+    assertThat(registry.isRevoked(null, new Date())).isFalse();
+  }
+
+  @Test
+  @DisplayName("Devrait révoquer les tokens émis avant la révocation")
+  void testIsRevoked_TokenIssuedBefore() {
+    // ARRANGE
+    Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+    // ACT
+    registry.revoke(1L);
+
+    // ASSERT
+    assertThat(registry.isRevoked(1L, issuedAt)).isTrue();
+    assertThat(registry.isRevoked(1L, null)).isTrue();
+    assertThat(registry.isRevoked(2L, issuedAt)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas révoquer les tokens émis après la révocation")
+  void testIsRevoked_TokenIssuedAfter() {
+    // ACT
+    registry.revoke(1L);
+
+    // ASSERT
+    assertThat(registry.isRevoked(1L, new Date(System.currentTimeMillis() + 5000))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Devrait enregistrer la révocation et purger les révocations expirées")
+  void testRevoke_Persisted() {
+    // ACT
+    registry.revoke(1L);
+
+    // ASSERT
+    verify(jwtRevocationRepository).save(argThat(revocation -> revocation.getUserId() == 1L));
+    verify(jwtRevocationRepository).deleteExpired(argThat(before -> before <= System.currentTimeMillis() - EXPIRATION_MS));
+  }
+
+  @Test
+  @DisplayName("Ne devrait retenir la révocation qu'après le commit de la transaction")
+  void testRevoke_InTransaction_AppliedAfterCommit() {
+    // ARRANGE
+    Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // ACT
+      registry.revoke(1L);
+
+      // ASSERT
+      assertThat(registry.isRevoked(1L, issuedAt)).isFalse();
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      assertThat(registry.isRevoked(1L, issuedAt)).isTrue();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("Ne devrait rien retenir si la transaction est annulée")
+  void testRevoke_InTransaction_RolledBack() {
+    // ARRANGE
+    Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // ACT
+      registry.revoke(1L);
+      TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // ASSERT
+    assertThat(registry.isRevoked(1L, issuedAt)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Devrait refuser les tokens révoqués avant un redémarrage")
+  void testIsRevoked_AfterRestart() {
+    // ARRANGE
+    long revokedAt = System.currentTimeMillis() - 1000;
+    when(jwtRevocationRepository.findByRevokedAtGreaterThan(anyLong()))
+      .thenReturn(List.of(JwtRevocation.builder().userId(1L).revokedAt(revokedAt).build()));
+
+    // ACT
+    JwtRevocationRegistry restarted = new JwtRevocationRegistry(jwtRevocationRepository, EXPIRATION_MS, 60000);
+
+    // ASSERT
+    assertThat(restarted.isRevoked(1L, new Date(revokedAt - 1000))).isTrue();
+    assertThat(restarted.isRevoked(2L, new Date(revokedAt - 1000))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Devrait voir les révocations d'une autre instance après le délai de rafraîchissement")
+  void testIsRevoked_RefreshedFromOtherInstance() {
+    // ARRANGE
+    JwtRevocationRegistry alwaysRefreshed = new JwtRevocationRegistry(jwtRevocationRepository, EXPIRATION_MS, 0);
+    Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+    assertThat(alwaysRefreshed.isRevoked(1L, issuedAt)).isFalse();
+
+    // ACT
+    when(jwtRevocationRepository.findByRevokedAtGreaterThan(anyLong()))
+      .thenReturn(List.of(JwtRevocation.builder().userId(1L).revokedAt(System.currentTimeMillis()).build()));
+
+    // ASSERT
+    assertThat(alwaysRefreshed.isRevoked(1L, issuedAt)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Ne devrait relire la base qu'une fois par délai de rafraîchissement")
+  void testIsRevoked_SnapshotReused() {
+    // ACT
+    registry.isRevoked(1L, new Date());
+    registry.isRevoked(2L, new Date());
+    registry.isRevoked(3L, new Date());
+
+    // ASSERT
+    verify(jwtRevocationRepository, times(1)).findByRevokedAtGreaterThan(anyLong());
+  }
+}
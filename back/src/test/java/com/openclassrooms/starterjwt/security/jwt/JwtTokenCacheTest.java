@@ -0,0 +1,122 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour JwtTokenCache
+ *
+ * Ce qu'on teste :
+ * - get() / put() : mise en cache des tokens déjà vérifiés
+ * - expiration des entrées avec le token
+ * - taille maximale du cache, et cache désactivé avec une taille de 0
+ */
+@DisplayName("JwtTokenCache - Tests Unitaires")
+class JwtTokenCacheTest {
+
+  private JwtTokenCache jwtTokenCache;
+
+  @BeforeEach
+  void setUp() {
+    jwtTokenCache = new JwtTokenCache(100);
+  }
+
+  @Test
+  @DisplayName("Devrait retrouver le sujet d'un token mis en cache")
+  void testPutAndGet() {
+    // ACT
+    jwtTokenCache.put("a.b.c", result("test@test.com", new Date(System.currentTimeMillis() + 60000)));
+
+    // ASSERT
+    JwtValidationResult cached = jwtTokenCache.get("a.b.c");
+    assertThat(cached).isNotNull();
+    assertThat(cached.getSubject()).isEqualTo("test@test.com");
+  }
+
+  @Test
+  @DisplayName("Devrait retourner null pour un token inconnu")
+  void testGet_Unknown() {
+    assertThat(jwtTokenCache.get("unknown.token.value")).isNull();
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas retourner un token expiré")
+  void testGet_Expired() {
+    // ACT
+    jwtTokenCache.put("a.b.c", result("test@test.com", new Date(System.currentTimeMillis() - 1000)));
+
+    // ASSERT
+    assertThat(jwtTokenCache.get("a.b.c")).isNull();
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas mettre en cache un token sans date d'expiration")
+  void testPut_NoExpiration() {
+    // ACT
+    jwtTokenCache.put("a.b.c", result("test@test.com", null));
+
+    // ASSERT
+    assertThat(jwtTokenCache.get("a.b.c")).isNull();
+  }
+
+  @Test
+  @DisplayName("Devrait borner le nombre d'entrées")
+  void testMaximumSize() {
+    // ARRANGE
+    JwtTokenCache smallCache = new JwtTokenCache(10);
+    Date expiration = new Date(System.currentTimeMillis() + 60000);
+
+    // ACT
+    for (int i = 0; i < 100; i++) {
+      smallCache.put("token." + i, result("user" + i + "@test.com", expiration));
+    }
+
+    // ASSERT
+    assertThat(smallCache.size()).isLessThanOrEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Ne devrait rien mettre en cache avec une taille de 0")
+  void testMaximumSize_Disabled() {
+    // ARRANGE
+    JwtTokenCache disabledCache = new JwtTokenCache(0);
+
+    // ACT
+    disabledCache.put("a.b.c", result("test@test.com", new Date(System.currentTimeMillis() + 60000)));
+
+    // ASSERT
+    assertThat(disabledCache.get("a.b.c")).isNull();
+    assertThat(disabledCache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas mettre en cache un token invalide")
+  void testPut_Invalid() {
+    // ACT
+    jwtTokenCache.put("a.b.c", JwtValidationResult.invalid(JwtValidationResult.FailureReason.INVALID_SIGNATURE));
+
+    // ASSERT
+    assertThat(jwtTokenCache.get("a.b.c")).isNull();
+  }
+
+  @Test
+  @DisplayName("Devrait utiliser une empreinte du token comme clé")
+  void testDigest() {
+    assertThat(JwtTokenCache.digest("a.b.c")).isEqualTo(JwtTokenCache.digest("a.b.c"));
+    assertThat(JwtTokenCache.digest("a.b.c")).isNotEqualTo(JwtTokenCache.digest("a.b.d"));
+    assertThat(JwtTokenCache.digest("a.b.c")).doesNotContain("a.b.c");
+  }
+
+  private JwtValidationResult result(String subject, Date expiration) {
+    Claims claims = Jwts.claims().setSubject(subject).setExpiration(expiration);
+    return JwtValidationResult.valid(claims);
+  }
+}
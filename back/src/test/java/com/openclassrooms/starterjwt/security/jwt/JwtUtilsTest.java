@@ -222,4 +222,88 @@ class JwtUtilsTest {
     // ASSERT
     assertThat(isValid).isFalse();
   }
+
+  // ========== TESTS PARSE JWT TOKEN ==========
+
+  @Test
+  @DisplayName("Devrait embarquer l'identité de l'utilisateur dans le token")
+  void testParseJwtToken_PrincipalClaims() {
+    // ARRANGE
+    Authentication auth = createMockAuthentication();
+    String token = jwtUtils.generateJwtToken(auth);
+
+    // ACT
+    JwtValidationResult result = jwtUtils.parseJwtToken(token);
+
+    // ASSERT
+    assertThat(result.hasPrincipalClaims()).isTrue();
+    assertThat(result.getUserId()).isEqualTo(1L);
+    assertThat(result.getFirstName()).isEqualTo("John");
+    assertThat(result.getLastName()).isEqualTo("Doe");
+    assertThat(result.getAdmin()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Devrait retourner les claims d'un token valide en une seule analyse")
+  void testParseJwtToken_Valid() {
+    // ARRANGE
+    Authentication auth = createMockAuthentication();
+    String token = jwtUtils.generateJwtToken(auth);
+
+    // ACT
+    JwtValidationResult result = jwtUtils.parseJwtToken(token);
+
+    // ASSERT
+    assertThat(result.isValid()).isTrue();
+    assertThat(result.getSubject()).isEqualTo("test@test.com");
+    assertThat(result.getIssuedAt()).isNotNull();
+    assertThat(result.getExpiration()).isAfter(result.getIssuedAt());
+    assertThat(result.getFailureReason()).isNull();
+  }
+
+  @Test
+  @DisplayName("Devrait indiquer la raison d'échec d'un token expiré")
+  void testParseJwtToken_Expired() {
+    // ARRANGE
+    String expiredToken = Jwts.builder()
+      .setSubject("test@test.com")
+      .setIssuedAt(new Date(System.currentTimeMillis() - 10000))
+      .setExpiration(new Date(System.currentTimeMillis() - 5000))
+      .signWith(SignatureAlgorithm.HS512, jwtSecret)
+      .compact();
+
+    // ACT
+    JwtValidationResult result = jwtUtils.parseJwtToken(expiredToken);
+
+    // ASSERT
+    assertThat(result.isValid()).isFalse();
+    assertThat(result.getFailureReason()).isEqualTo(JwtValidationResult.FailureReason.EXPIRED);
+    assertThat(result.getSubject()).isNull();
+  }
+
+  @Test
+  @DisplayName("Devrait indiquer la raison d'échec d'un token mal signé")
+  void testParseJwtToken_InvalidSignature() {
+    // ARRANGE
+    String invalidToken = Jwts.builder()
+      .setSubject("test@test.com")
+      .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+      .signWith(SignatureAlgorithm.HS512, "wrongSecret")
+      .compact();
+
+    // ACT
+    JwtValidationResult result = jwtUtils.parseJwtToken(invalidToken);
+
+    // ASSERT
+    assertThat(result.getFailureReason()).isEqualTo(JwtValidationResult.FailureReason.INVALID_SIGNATURE);
+  }
+
+  @Test
+  @DisplayName("Devrait indiquer la raison d'échec d'un token malformé ou vide")
+  void testParseJwtToken_MalformedAndEmpty() {
+    assertThat(jwtUtils.parseJwtToken("header.payload").getFailureReason())
+      .isEqualTo(JwtValidationResult.FailureReason.MALFORMED);
+    assertThat(jwtUtils.parseJwtToken("").getFailureReason())
+      .isEqualTo(JwtValidationResult.FailureReason.EMPTY);
+  }
 }
@@ -0,0 +1,132 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour UserDetailsCache
+ */
+@DisplayName("UserDetailsCache - Tests Unitaires")
+class UserDetailsCacheTest {
+
+  private UserDetailsCache userDetailsCache;
+
+  private UserDetailsImpl userDetails;
+
+  @BeforeEach
+  void setUp() {
+    userDetailsCache = new UserDetailsCache(100, 60000);
+
+    userDetails = UserDetailsImpl.builder()
+      .id(1L)
+      .username("test@test.com")
+      .firstName("John")
+      .lastName("Doe")
+      .password("password123")
+      .build();
+  }
+
+  @Test
+  @DisplayName("Devrait appeler le loader une seule fois par email")
+  void testGet_LoadsOnce() {
+    // ARRANGE
+    AtomicInteger loads = new AtomicInteger();
+
+    // ACT
+    userDetailsCache.get("test@test.com", email -> { loads.incrementAndGet(); return userDetails; });
+    UserDetails cached = userDetailsCache.get("test@test.com", email -> { loads.incrementAndGet(); return userDetails; });
+
+    // ASSERT
+    assertThat(cached).isSameAs(userDetails);
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(userDetailsCache.stats().hitCount()).isEqualTo(1);
+    assertThat(userDetailsCache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Devrait servir une entrée ajoutée manuellement")
+  void testPut() {
+    // ACT
+    userDetailsCache.put(userDetails);
+
+    // ASSERT
+    assertThat(userDetailsCache.get("test@test.com", email -> null)).isSameAs(userDetails);
+  }
+
+  @Test
+  @DisplayName("Devrait retirer une entrée par email et par identifiant")
+  void testEvict() {
+    // ARRANGE
+    UserDetailsImpl other = UserDetailsImpl.builder().id(2L).username("other@test.com").build();
+    userDetailsCache.put(userDetails);
+    userDetailsCache.put(other);
+
+    // ACT
+    userDetailsCache.evict("other@test.com");
+    userDetailsCache.evictById(1L);
+
+    // ASSERT
+    assertThat(userDetailsCache.get("test@test.com", email -> null)).isNull();
+    assertThat(userDetailsCache.get("other@test.com", email -> null)).isNull();
+  }
+
+  @Test
+  @DisplayName("Devrait retirer par identifiant une entrée chargée, puis rechargée")
+  void testEvictById_Loaded() {
+    // ARRANGE
+    UserDetailsImpl other = UserDetailsImpl.builder().id(2L).username("other@test.com").build();
+    AtomicInteger loads = new AtomicInteger();
+    userDetailsCache.get("test@test.com", email -> { loads.incrementAndGet(); return userDetails; });
+    userDetailsCache.put(other);
+
+    // ACT
+    userDetailsCache.evictById(1L);
+    userDetailsCache.get("test@test.com", email -> { loads.incrementAndGet(); return userDetails; });
+    userDetailsCache.evictById(1L);
+    userDetailsCache.evictById(3L);
+
+    // ASSERT
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(userDetailsCache.get("test@test.com", email -> null)).isNull();
+    assertThat(userDetailsCache.get("other@test.com", email -> null)).isSameAs(other);
+  }
+
+  @Test
+  @DisplayName("Devrait retirer par identifiant une entrée rechargée après un retrait par email")
+  void testEvictById_AfterEvictByEmail() {
+    // ARRANGE
+    userDetailsCache.put(userDetails);
+    userDetailsCache.evict("test@test.com");
+    UserDetailsImpl reloaded = UserDetailsImpl.builder().id(1L).username("test@test.com").build();
+    userDetailsCache.get("test@test.com", email -> reloaded);
+
+    // ACT
+    userDetailsCache.evictById(1L);
+
+    // ASSERT
+    assertThat(userDetailsCache.get("test@test.com", email -> null)).isNull();
+  }
+
+  @Test
+  @DisplayName("Devrait publier les compteurs du cache")
+  void testBindTo() {
+    // ARRANGE
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // ACT
+    userDetailsCache.bindTo(registry);
+    userDetailsCache.get("test@test.com", email -> userDetails);
+
+    // ASSERT
+    assertThat(registry.find("cache.gets").tag("cache", "userDetails").tag("result", "miss").functionCounter().count())
+      .isEqualTo(1);
+    assertThat(registry.find("cache.evictions").tag("cache", "userDetails").functionCounter()).isNotNull();
+  }
+}
@@ -1,5 +1,6 @@
 package com.openclassrooms.starterjwt.security.services;
 
+import com.openclassrooms.starterjwt.models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -118,6 +119,39 @@ class UserDetailsImplTest {
     assertThat(authorities).isEmpty();
   }
 
+  @Test
+  @DisplayName("getAuthorities devrait retourner ROLE_ADMIN pour un admin")
+  void testGetAuthorities_Admin() {
+    // ARRANGE
+    UserDetailsImpl admin = UserDetailsImpl.builder().id(2L).admin(true).build();
+
+    // ACT & ASSERT
+    assertThat(admin.getAuthorities())
+      .extracting(GrantedAuthority::getAuthority)
+      .containsExactly("ROLE_ADMIN");
+  }
+
+  @Test
+  @DisplayName("fromUser devrait reprendre le statut admin")
+  void testFromUser_Admin() {
+    // ARRANGE
+    User user = User.builder()
+      .id(3L)
+      .email("admin@test.com")
+      .firstName("Admin")
+      .lastName("User")
+      .password("adminpass")
+      .admin(true)
+      .build();
+
+    // ACT
+    UserDetailsImpl details = UserDetailsImpl.fromUser(user);
+
+    // ASSERT
+    assertThat(details.getAdmin()).isTrue();
+    assertThat(details.getAuthorities()).hasSize(1);
+  }
+
   @Test
   @DisplayName("isAccountNonExpired devrait retourner true")
   void testIsAccountNonExpired() {
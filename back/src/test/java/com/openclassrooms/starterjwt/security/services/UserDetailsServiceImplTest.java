@@ -35,7 +35,7 @@ class UserDetailsServiceImplTest {
   @BeforeEach
   void setUp() {
     // Créer le service avec le repository mocké
-    userDetailsService = new UserDetailsServiceImpl(userRepository);
+    userDetailsService = new UserDetailsServiceImpl(userRepository, new UserDetailsCache(100, 60000));
 
     // Créer un utilisateur de test
     user = new User();
@@ -170,4 +170,33 @@ class UserDetailsServiceImplTest {
     verify(userRepository, times(1)).findByEmail("test@test.com");
     verifyNoMoreInteractions(userRepository);
   }
+
+  @Test
+  @DisplayName("Devrait servir les appels suivants depuis le cache")
+  void testLoadUserByUsername_Cached() {
+    // ARRANGE
+    when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(user));
+
+    // ACT
+    UserDetails first = userDetailsService.loadUserByUsername("test@test.com");
+    UserDetails second = userDetailsService.loadUserByUsername("test@test.com");
+
+    // ASSERT
+    assertThat(second).isSameAs(first);
+    verify(userRepository, times(1)).findByEmail("test@test.com");
+  }
+
+  @Test
+  @DisplayName("Ne devrait pas mettre en cache un utilisateur introuvable")
+  void testLoadUserByUsername_NotFoundNotCached() {
+    // ARRANGE
+    when(userRepository.findByEmail("late@test.com"))
+      .thenReturn(Optional.empty())
+      .thenReturn(Optional.of(user));
+
+    // ACT & ASSERT
+    assertThatThrownBy(() -> userDetailsService.loadUserByUsername("late@test.com"))
+      .isInstanceOf(UsernameNotFoundException.class);
+    assertThat(userDetailsService.loadUserByUsername("late@test.com")).isNotNull();
+  }
 }
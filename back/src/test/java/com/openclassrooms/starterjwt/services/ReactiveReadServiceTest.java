@@ -0,0 +1,111 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.ReactiveReadRepository;
+import com.openclassrooms.starterjwt.repository.projection.SessionParticipantView;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - ReactiveReadService")
+class ReactiveReadServiceTest {
+
+  @Mock
+  private ReactiveReadRepository reactiveReadRepository;
+
+  @InjectMocks
+  private ReactiveReadService reactiveReadService;
+
+  @Test
+  @DisplayName("findAllViews() doit regrouper les lignes consécutives d'une même session")
+  void testFindAllViews_ShouldGroupRowsBySession() {
+    // ARRANGE
+    SessionParticipantView first = row(1L, 10L);
+    SessionParticipantView second = row(1L, 11L);
+    SessionParticipantView empty = row(2L, null);
+    when(reactiveReadRepository.findViewsWithParticipants()).thenReturn(Flux.just(first, second, empty));
+
+    // ACT
+    List<Tuple2<SessionView, List<Long>>> views = reactiveReadService.findAllViews().collectList().block();
+
+    // ASSERT
+    assertThat(views).hasSize(2);
+    assertThat(views.get(0).getT1()).isSameAs(first);
+    assertThat(views.get(0).getT2()).containsExactly(10L, 11L);
+    assertThat(views.get(1).getT1()).isSameAs(empty);
+    assertThat(views.get(1).getT2()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("findAllViews() doit retourner un flux vide sans session")
+  void testFindAllViews_ShouldBeEmptyWithoutSessions() {
+    // ARRANGE
+    when(reactiveReadRepository.findViewsWithParticipants()).thenReturn(Flux.empty());
+
+    // ACT & ASSERT
+    assertThat(reactiveReadService.findAllViews().collectList().block()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("findViewById() doit retourner la session avec ses participants")
+  void testFindViewById_ShouldReturnSessionWithUsers() {
+    // ARRANGE
+    SessionParticipantView first = row(10L);
+    SessionParticipantView second = row(11L);
+    when(reactiveReadRepository.findViewWithParticipantsById(1L)).thenReturn(Flux.just(first, second));
+
+    // ACT
+    Tuple2<SessionView, List<Long>> view = reactiveReadService.findViewById(1L).block();
+
+    // ASSERT
+    assertThat(view).isNotNull();
+    assertThat(view.getT1()).isSameAs(first);
+    assertThat(view.getT2()).containsExactly(10L, 11L);
+  }
+
+  @Test
+  @DisplayName("findViewById() doit être vide si la session n'existe pas")
+  void testFindViewById_ShouldBeEmptyWhenNotFound() {
+    // ARRANGE
+    when(reactiveReadRepository.findViewWithParticipantsById(99L)).thenReturn(Flux.empty());
+
+    // ACT & ASSERT
+    assertThat(reactiveReadService.findViewById(99L).blockOptional()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("findAllTeachers() doit déléguer au repository")
+  void testFindAllTeachers_ShouldDelegateToRepository() {
+    // ARRANGE
+    Teacher teacher = Teacher.builder().id(1L).firstName("Marie").lastName("Dupont").build();
+    when(reactiveReadRepository.findAllTeachers()).thenReturn(Flux.just(teacher));
+
+    // ACT & ASSERT
+    assertThat(reactiveReadService.findAllTeachers().collectList().block()).containsExactly(teacher);
+  }
+
+  private SessionParticipantView row(Long sessionId, Long userId) {
+    SessionParticipantView row = mock(SessionParticipantView.class);
+    when(row.getId()).thenReturn(sessionId);
+    when(row.getUserId()).thenReturn(userId);
+    return row;
+  }
+
+  private SessionParticipantView row(Long userId) {
+    SessionParticipantView row = mock(SessionParticipantView.class);
+    when(row.getUserId()).thenReturn(userId);
+    return row;
+  }
+}
@@ -4,19 +4,40 @@ import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitingListEntry;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionFilter;
+import com.openclassrooms.starterjwt.repository.ParticipationBatchRepository;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitingListRepository;
+import com.openclassrooms.starterjwt.repository.projection.EnrolmentView;
+import com.openclassrooms.starterjwt.repository.projection.ParticipationView;
+import com.openclassrooms.starterjwt.repository.projection.SeatView;
+import com.openclassrooms.starterjwt.repository.projection.SessionParticipantView;
+import com.openclassrooms.starterjwt.repository.projection.SessionView;
+import com.openclassrooms.starterjwt.repository.projection.TableState;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +50,18 @@ class SessionServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private WaitingListRepository waitingListRepository;
+
+  @Mock
+  private ParticipationBatchRepository participationBatchRepository;
+
+  @Mock
+  private SessionCacheEvictor sessionCacheEvictor;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
   @InjectMocks
   private SessionService sessionService;
 
@@ -53,7 +86,7 @@ class SessionServiceTest {
       .name("Yoga Session")
       .description("Relax")
       .date(new Date())
-      .users(new ArrayList<>())
+      .users(new HashSet<>())
       .build();
   }
 
@@ -67,12 +100,88 @@ class SessionServiceTest {
 
 
   @Test
-  void shouldReturnAllSessions() {
-    when(sessionRepository.findAll()).thenReturn(List.of(session));
-    List<Session> result = sessionService.findAll();
-    assertEquals(1, result.size());
+  void shouldReturnSessionViewsAndParticipations() {
+    SessionView view = mock(SessionView.class);
+    ParticipationView participation = mock(ParticipationView.class);
+    when(sessionRepository.findAllViews()).thenReturn(List.of(view));
+    when(sessionRepository.findAllParticipations()).thenReturn(List.of(participation));
+
+    assertEquals(List.of(view), sessionService.findAllViews());
+    assertEquals(List.of(participation), sessionService.findAllParticipations());
   }
 
+  @Test
+  void shouldGroupStreamedRowsBySession() {
+    SessionParticipantView first = participantRow(1L, 10L);
+    SessionParticipantView second = participantRow(1L, 11L);
+    SessionParticipantView empty = participantRow(2L, null);
+    when(sessionRepository.streamViewsWithParticipants()).thenReturn(Stream.of(first, second, empty));
+    List<Long> sessionIds = new ArrayList<>();
+    List<List<Long>> userIds = new ArrayList<>();
+
+    sessionService.forEachView((view, users) -> {
+      sessionIds.add(view.getId());
+      userIds.add(users);
+    });
+
+    assertEquals(List.of(1L, 2L), sessionIds);
+    assertEquals(List.of(List.of(10L, 11L), List.of()), userIds);
+  }
+
+  @Test
+  void shouldNotCallActionWithoutSessions() {
+    when(sessionRepository.streamViewsWithParticipants()).thenReturn(Stream.empty());
+
+    sessionService.forEachView((view, users) -> fail("Aucune session attendue"));
+  }
+
+  private SessionParticipantView participantRow(Long sessionId, Long userId) {
+    SessionParticipantView row = mock(SessionParticipantView.class);
+    when(row.getId()).thenReturn(sessionId);
+    when(row.getUserId()).thenReturn(userId);
+    return row;
+  }
+
+  @Test
+  void shouldNotQueryParticipationsForEmptyPage() {
+    assertTrue(sessionService.findParticipations(List.of()).isEmpty());
+    verify(sessionRepository, never()).findParticipations(any());
+  }
+
+  @Test
+  void shouldReturnSessionViewsAfterCursor() {
+    Date date = new Date();
+    Slice<SessionView> slice = new SliceImpl<>(List.of());
+    when(sessionRepository.findViewsAfter(SessionFilter.MIN_DATE, SessionFilter.MAX_DATE, date, 5L, PageRequest.of(0, 10)))
+      .thenReturn(slice);
+
+    assertEquals(slice, sessionService.findViews(new SessionFilter(null, null, null), new SessionCursor(date, 5L), PageRequest.of(0, 10)));
+  }
+
+  @Test
+  void shouldReturnSessionViewsInDateRange() {
+    Date from = new Date(1000L);
+    Date to = new Date(2000L);
+    Slice<SessionView> slice = new SliceImpl<>(List.of());
+    when(sessionRepository.findViews(from, to, PageRequest.of(0, 10))).thenReturn(slice);
+
+    assertEquals(slice, sessionService.findViews(new SessionFilter(from, to, null), null, PageRequest.of(0, 10)));
+    verify(sessionRepository, never()).findViewsByTeacher(any(), any(), any(), any());
+  }
+
+  @Test
+  void shouldReturnSessionViewsOfTeacher() {
+    Date date = new Date();
+    Slice<SessionView> slice = new SliceImpl<>(List.of());
+    SessionFilter filter = new SessionFilter(null, null, 2L);
+    when(sessionRepository.findViewsByTeacher(2L, SessionFilter.MIN_DATE, SessionFilter.MAX_DATE, PageRequest.of(0, 10)))
+      .thenReturn(slice);
+    when(sessionRepository.findViewsByTeacherAfter(2L, SessionFilter.MIN_DATE, SessionFilter.MAX_DATE, date, 5L, PageRequest.of(0, 10)))
+      .thenReturn(slice);
+
+    assertEquals(slice, sessionService.findViews(filter, null, PageRequest.of(0, 10)));
+    assertEquals(slice, sessionService.findViews(filter, new SessionCursor(date, 5L), PageRequest.of(0, 10)));
+  }
 
   @Test
   void shouldReturnSessionById() {
@@ -93,9 +202,30 @@ class SessionServiceTest {
     assertNull(result);
   }
 
+  @Test
+  void shouldReturnNullETagIfSessionNotFound() {
+    TableState state = mock(TableState.class);
+    when(state.getRowCount()).thenReturn(0L);
+    when(sessionRepository.findStateById(1L)).thenReturn(state);
+
+    assertNull(sessionService.getETag(1L));
+    verify(sessionRepository, never()).findById(any());
+  }
+
+  @Test
+  void shouldDeriveListETagFromTableState() {
+    TableState state = mock(TableState.class);
+    when(state.toETag()).thenReturn("2-5-7-null");
+    when(sessionRepository.findTableState()).thenReturn(state);
+
+    assertEquals("2-5-7-null", sessionService.getListETag());
+  }
+
   // ---------------- UPDATE ----------------
   @Test
   void shouldUpdateSession() {
+    session.setVersion(0L);
+    when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
     when(sessionRepository.save(any(Session.class))).thenReturn(session);
 
     Session result = sessionService.update(1L, session);
@@ -103,74 +233,372 @@ class SessionServiceTest {
     assertEquals(1L, result.getId());
   }
 
+  @Test
+  void shouldSaveAllInOneCall() {
+    Session existing = Session.builder().id(1L).version(3L).build();
+    Session changes = Session.builder().id(1L).name("Updated").version(3L).build();
+    Session creation = Session.builder().name("Created").users(new HashSet<>(List.of(new User()))).build();
+    List<Session> sessions = List.of(changes, creation);
+    when(sessionRepository.findAllById(Set.of(1L))).thenReturn(List.of(existing));
+    when(sessionRepository.saveAll(sessions)).thenReturn(sessions);
+
+    assertEquals(sessions, sessionService.saveAll(sessions));
+
+    assertEquals(1, creation.getParticipantCount());
+    verify(sessionRepository, times(1)).saveAll(sessions);
+  }
+
+  @Test
+  void shouldNotSaveAllWhenASessionIsUnknown() {
+    Session changes = Session.builder().id(1L).name("Updated").build();
+    when(sessionRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+
+    assertThrows(NotFoundException.class, () -> sessionService.saveAll(List.of(changes)));
+
+    verify(sessionRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldNotQueryExistingIdsWithoutIds() {
+    assertTrue(sessionService.findExistingIds(List.of()).isEmpty());
+
+    verify(sessionRepository, never()).findExistingIds(any());
+  }
+
+  @Test
+  void shouldRejectUpdateWithoutVersion() {
+    Session changes = Session.builder().name("Updated").build();
+
+    assertThrows(BadRequestException.class, () -> sessionService.update(1L, changes));
+
+    verify(sessionRepository, never()).findById(any());
+    verify(sessionRepository, never()).save(any());
+  }
+
+  @Test
+  void shouldNotSaveAllWhenAnUpdateHasNoVersion() {
+    Session existing = Session.builder().id(1L).version(3L).build();
+    Session changes = Session.builder().id(1L).name("Updated").build();
+    when(sessionRepository.findAllById(Set.of(1L))).thenReturn(List.of(existing));
+
+    assertThrows(BadRequestException.class, () -> sessionService.saveAll(List.of(changes)));
+
+    verify(sessionRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldKeepStoredCapacityWhenUpdateHasNone() {
+    Session existing = Session.builder().id(1L).version(3L).capacity(5).build();
+    Session changes = Session.builder().name("Updated").version(3L).users(new HashSet<>()).build();
+    when(sessionRepository.findById(1L)).thenReturn(Optional.of(existing));
+    when(sessionRepository.save(changes)).thenReturn(changes);
+
+    sessionService.update(1L, changes);
+
+    assertEquals(5, changes.getCapacity());
+  }
+
+  @Test
+  void shouldPromoteWaitingUsersIntoFreeSeatsOnUpdate() {
+    User waiting = User.builder()
+      .id(2L)
+      .email("waiting@test.com")
+      .firstName("Jane")
+      .lastName("Doe")
+      .password("password")
+      .admin(false)
+      .build();
+    Session existing = Session.builder().id(1L).version(3L).capacity(1).build();
+    Session changes = Session.builder().name("Updated").version(3L).capacity(3).users(new HashSet<>(Set.of(user))).build();
+    when(sessionRepository.findById(1L)).thenReturn(Optional.of(existing));
+    when(waitingListRepository.findBySessionIdOrderByIdAsc(1L, PageRequest.of(0, 2)))
+      .thenReturn(List.of(WaitingListEntry.builder().id(7L).sessionId(1L).userId(2L).build()));
+    when(userRepository.findAllById(List.of(2L))).thenReturn(List.of(waiting));
+    when(sessionRepository.save(changes)).thenReturn(changes);
+
+    sessionService.update(1L, changes);
+
+    InOrder inOrder = inOrder(waitingListRepository);
+    inOrder.verify(waitingListRepository).deleteEntries(1L, List.of(1L));
+    inOrder.verify(waitingListRepository).deleteAllInBatch(any());
+    assertEquals(Set.of(user, waiting), changes.getUsers());
+    assertEquals(2, changes.getParticipantCount());
+  }
+
+  @Test
+  void shouldNotPromoteWhenUpdateFillsTheSession() {
+    Session existing = Session.builder().id(1L).version(3L).build();
+    Session changes = Session.builder().name("Updated").version(3L).capacity(1).users(new HashSet<>(Set.of(user))).build();
+    when(sessionRepository.findById(1L)).thenReturn(Optional.of(existing));
+    when(sessionRepository.save(changes)).thenReturn(changes);
+
+    sessionService.update(1L, changes);
+
+    verify(waitingListRepository).deleteEntries(1L, List.of(1L));
+    verify(waitingListRepository, never()).findBySessionIdOrderByIdAsc(any(), any());
+  }
+
+  @Test
+  void shouldReconcileOnlyWaitlistedSessionsInSaveAll() {
+    Session first = Session.builder().id(1L).version(3L).capacity(2).build();
+    Session second = Session.builder().id(2L).version(1L).capacity(2).build();
+    Session firstChanges = Session.builder().id(1L).name("First").version(3L).users(new HashSet<>()).build();
+    Session secondChanges = Session.builder().id(2L).name("Second").version(1L).users(new HashSet<>()).build();
+    List<Session> sessions = List.of(firstChanges, secondChanges);
+    when(sessionRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+    when(waitingListRepository.findSessionIdsWithEntries(Set.of(1L, 2L))).thenReturn(Set.of(2L));
+    when(sessionRepository.saveAll(sessions)).thenReturn(sessions);
+
+    sessionService.saveAll(sessions);
+
+    assertEquals(2, firstChanges.getCapacity());
+    verify(waitingListRepository, never()).findBySessionIdOrderByIdAsc(eq(1L), any());
+    verify(waitingListRepository).findBySessionIdOrderByIdAsc(2L, PageRequest.of(0, 2));
+  }
+
+  @Test
+  void shouldThrowNotFoundWhenUpdatingMissingSession() {
+    session.setVersion(0L);
+    when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+
+    assertThrows(NotFoundException.class, () -> sessionService.update(1L, session));
+    verify(sessionRepository, never()).save(any());
+  }
+
   // ---------------- DELETE ----------------
   @Test
   void shouldDeleteSession() {
     sessionService.delete(1L);
 
+    verify(waitingListRepository).deleteBySession(1L);
     verify(sessionRepository).deleteById(1L);
   }
 
+  @Test
+  void shouldRejectSessionOverCapacity() {
+    session.setCapacity(1);
+    session.getUsers().add(user);
+    session.getUsers().add(User.builder()
+      .id(2L)
+      .email("other@test.com")
+      .firstName("Jane")
+      .lastName("Doe")
+      .password("password")
+      .admin(false)
+      .build());
+
+    assertThrows(BadRequestException.class, () -> sessionService.create(session));
+    verify(sessionRepository, never()).save(any());
+  }
+
   // ---------------- PARTICIPATE ----------------
   @Test
   void shouldAllowUserToParticipate() {
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.incrementVersion(1L)).thenReturn(1);
+    when(sessionRepository.claimSeat(1L)).thenReturn(1);
+
+    assertEquals(ParticipationStatus.PARTICIPATING, sessionService.participate(1L, 1L));
+
+    InOrder order = inOrder(sessionRepository);
+    order.verify(sessionRepository).incrementVersion(1L);
+    order.verify(sessionRepository).claimSeat(1L);
+    order.verify(sessionRepository).addParticipant(1L, 1L);
+    verify(sessionCacheEvictor).evict(1L);
+    verify(sessionRepository, never()).findById(any());
+    verify(sessionRepository, never()).save(any());
+  }
 
-    sessionService.participate(1L, 1L);
+  @Test
+  void shouldWaitlistWhenSessionIsFull() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.claimSeat(1L)).thenReturn(0);
+    when(sessionRepository.incrementVersion(1L)).thenReturn(1);
 
-    assertEquals(1, session.getUsers().size());
-    verify(sessionRepository).save(session);
+    assertEquals(ParticipationStatus.WAITLISTED, sessionService.participate(1L, 1L));
+
+    verify(sessionRepository, never()).addParticipant(any(), any());
+    verify(sessionCacheEvictor).evict(1L);
+    verify(waitingListRepository).save(argThat(entry -> entry.getSessionId() == 1L && entry.getUserId() == 1L));
   }
 
   @Test
   void shouldThrowNotFoundIfSessionMissing() {
-    when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.incrementVersion(1L)).thenReturn(0);
 
     assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, never()).claimSeat(any());
+    verify(sessionRepository, never()).addParticipant(any(), any());
+    verify(waitingListRepository, never()).save(any());
   }
 
   @Test
   void shouldThrowNotFoundIfUserMissing() {
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-    when(userRepository.findById(1L)).thenReturn(Optional.empty());
+    when(userRepository.existsById(1L)).thenReturn(false);
 
     assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, never()).addParticipant(any(), any());
+  }
+
+  @Test
+  void shouldRetryParticipationAfterConcurrentWrite() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.incrementVersion(1L)).thenReturn(1);
+    when(sessionRepository.claimSeat(1L)).thenReturn(1);
+    when(sessionRepository.addParticipant(1L, 1L))
+      .thenThrow(new CannotAcquireLockException("lock timeout"))
+      .thenReturn(1);
+
+    sessionService.participate(1L, 1L);
+
+    verify(sessionRepository, times(2)).addParticipant(1L, 1L);
+  }
+
+  @Test
+  void shouldGiveUpAfterBoundedRetries() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.incrementVersion(1L)).thenThrow(new CannotAcquireLockException("lock timeout"));
+
+    assertThrows(CannotAcquireLockException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, times(5)).incrementVersion(1L);
   }
 
   @Test
   void shouldThrowBadRequestIfAlreadyParticipating() {
-    session.getUsers().add(user);
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(1L);
 
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, never()).claimSeat(any());
+  }
+
+  @Test
+  void shouldThrowBadRequestIfAlreadyWaitlisted() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(waitingListRepository.existsBySessionIdAndUserId(1L, 1L)).thenReturn(true);
 
     assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, never()).claimSeat(any());
   }
 
   // ---------------- NO LONGER PARTICIPATE ----------------
   @Test
   void shouldRemoveUserFromSession() {
-    session.getUsers().add(user);
+    when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+    when(waitingListRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.empty());
 
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+    sessionService.noLongerParticipate(1L, 1L);
+
+    verify(sessionRepository).releaseSeat(1L);
+    verify(sessionRepository, never()).claimSeat(any());
+    verify(sessionRepository, never()).save(any());
+    verify(sessionCacheEvictor).evict(1L);
+  }
+
+  @Test
+  void shouldPromoteFirstWaitlistedUser() {
+    WaitingListEntry next = WaitingListEntry.builder().id(7L).sessionId(1L).userId(2L).build();
+    when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+    when(waitingListRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(next));
 
     sessionService.noLongerParticipate(1L, 1L);
 
-    assertEquals(0, session.getUsers().size());
-    verify(sessionRepository).save(session);
+    verify(sessionRepository).releaseSeat(1L);
+    verify(waitingListRepository).delete(next);
+    verify(sessionRepository).addParticipant(1L, 2L);
+    verify(sessionRepository).claimSeat(1L);
+  }
+
+  @Test
+  void shouldSeatThenWaitlistGroup() {
+    when(sessionRepository.incrementVersion(1L)).thenReturn(1);
+    List<EnrolmentView> enrolments = List.of(enrolment(1L, 1L, null), enrolment(2L, null, null), enrolment(3L, null, null));
+    when(sessionRepository.findEnrolments(eq(1L), any())).thenReturn(enrolments);
+    SeatView seats = seats(2, 1);
+    when(sessionRepository.findSeatsById(1L)).thenReturn(seats);
+
+    Map<Long, EnrolmentOutcome> outcomes = sessionService.addParticipants(1L, List.of(1L, 2L, 3L, 4L, 2L));
+
+    assertEquals(List.of(1L, 2L, 3L, 4L), List.copyOf(outcomes.keySet()));
+    assertEquals(EnrolmentOutcome.ALREADY_ENROLLED, outcomes.get(1L));
+    assertEquals(EnrolmentOutcome.PARTICIPATING, outcomes.get(2L));
+    assertEquals(EnrolmentOutcome.WAITLISTED, outcomes.get(3L));
+    assertEquals(EnrolmentOutcome.UNKNOWN_USER, outcomes.get(4L));
+    verify(participationBatchRepository).addParticipants(1L, List.of(2L));
+    verify(sessionRepository).adjustParticipantCount(1L, 1);
+    verify(participationBatchRepository).addToWaitingList(1L, List.of(3L));
+    verify(sessionCacheEvictor).evict(1L);
+  }
+
+  @Test
+  void shouldThrowNotFoundWhenAddingToMissingSession() {
+    when(sessionRepository.incrementVersion(1L)).thenReturn(0);
+
+    assertThrows(NotFoundException.class, () -> sessionService.addParticipants(1L, List.of(1L)));
+
+    verify(sessionRepository, never()).findEnrolments(any(), any());
+  }
+
+  @Test
+  void shouldRemoveGroupAndPromoteWaitlist() {
+    when(sessionRepository.incrementVersion(1L)).thenReturn(1);
+    List<EnrolmentView> enrolments = List.of(enrolment(1L, 1L, null), enrolment(2L, null, 5L), enrolment(3L, null, null));
+    when(sessionRepository.findEnrolments(eq(1L), any())).thenReturn(enrolments);
+    SeatView seats = seats(2, 1);
+    when(sessionRepository.findSeatsById(1L)).thenReturn(seats);
+    WaitingListEntry next = WaitingListEntry.builder().id(6L).sessionId(1L).userId(4L).build();
+    when(waitingListRepository.findBySessionIdOrderByIdAsc(1L, PageRequest.of(0, 1))).thenReturn(List.of(next));
+
+    Map<Long, EnrolmentOutcome> outcomes = sessionService.removeParticipants(1L, List.of(1L, 2L, 3L));
+
+    assertEquals(EnrolmentOutcome.REMOVED, outcomes.get(1L));
+    assertEquals(EnrolmentOutcome.REMOVED, outcomes.get(2L));
+    assertEquals(EnrolmentOutcome.NOT_ENROLLED, outcomes.get(3L));
+    verify(waitingListRepository).deleteEntries(1L, List.of(2L));
+    verify(sessionRepository).removeParticipants(1L, List.of(1L));
+    verify(sessionRepository).adjustParticipantCount(1L, -1);
+    verify(waitingListRepository).deleteAllInBatch(List.of(next));
+    verify(participationBatchRepository).addParticipants(1L, List.of(4L));
+    verify(sessionRepository).adjustParticipantCount(1L, 1);
+  }
+
+  private EnrolmentView enrolment(Long userId, Long participantId, Long waitingId) {
+    EnrolmentView enrolment = mock(EnrolmentView.class);
+    when(enrolment.getUserId()).thenReturn(userId);
+    when(enrolment.getParticipantId()).thenReturn(participantId);
+    when(enrolment.getWaitingId()).thenReturn(waitingId);
+    return enrolment;
+  }
+
+  private SeatView seats(Integer capacity, Integer participantCount) {
+    SeatView seats = mock(SeatView.class);
+    when(seats.getCapacity()).thenReturn(capacity);
+    when(seats.getParticipantCount()).thenReturn(participantCount);
+    return seats;
+  }
+
+  @Test
+  void shouldLeaveWaitingList() {
+    when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
+    when(waitingListRepository.deleteEntry(1L, 1L)).thenReturn(1);
+
+    sessionService.noLongerParticipate(1L, 1L);
+
+    verify(sessionRepository, never()).releaseSeat(any());
   }
 
   @Test
   void shouldThrowNotFoundIfSessionMissingWhenRemoving() {
-    when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+    when(sessionRepository.existsById(1L)).thenReturn(false);
 
     assertThrows(NotFoundException.class, () -> sessionService.noLongerParticipate(1L, 1L));
+    verify(sessionRepository, never()).releaseSeat(any());
   }
 
   @Test
   void shouldThrowBadRequestIfUserNotParticipating() {
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+    when(sessionRepository.existsById(1L)).thenReturn(true);
 
     assertThrows(BadRequestException.class, () -> sessionService.noLongerParticipate(1L, 1L));
   }
@@ -2,6 +2,7 @@ package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.projection.TableState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -129,4 +131,50 @@ class TeacherServiceTest {
     assertThat(actualTeacher).isNull();
     verify(teacherRepository, times(1)).findById(null);
   }
+
+  @Test
+  @DisplayName("findAllById() doit charger les teachers en une seule requête")
+  void testFindAllById_ShouldLoadTeachersInOneQuery() {
+
+    List<Long> ids = Arrays.asList(1L, 2L);
+    when(teacherRepository.findAllById(ids)).thenReturn(Arrays.asList(teacher1, teacher2));
+
+    List<Teacher> actualTeachers = teacherService.findAllById(ids);
+
+    assertThat(actualTeachers).containsExactly(teacher1, teacher2);
+    verify(teacherRepository, times(1)).findAllById(ids);
+  }
+
+  @Test
+  @DisplayName("findAllById() ne doit pas interroger la base sans identifiant")
+  void testFindAllById_ShouldSkipEmptyIds() {
+
+    assertThat(teacherService.findAllById(Collections.emptyList())).isEmpty();
+
+    verifyNoInteractions(teacherRepository);
+  }
+
+  @Test
+  @DisplayName("getETag() doit retourner null si le teacher n'existe pas")
+  void testGetETag_ShouldReturnNullWhenNotFound() {
+
+    TableState state = mock(TableState.class);
+    when(state.getRowCount()).thenReturn(0L);
+    when(teacherRepository.findStateById(99L)).thenReturn(state);
+
+    assertThat(teacherService.getETag(99L)).isNull();
+    verify(teacherRepository, never()).findById(any());
+  }
+
+  @Test
+  @DisplayName("getETag() doit dériver l'ETag de l'état de la ligne")
+  void testGetETag_ShouldUseRowState() {
+
+    TableState state = mock(TableState.class);
+    when(state.getRowCount()).thenReturn(1L);
+    when(state.toETag()).thenReturn("1-1-null-2024-01-01T10:00");
+    when(teacherRepository.findStateById(1L)).thenReturn(state);
+
+    assertThat(teacherService.getETag(1L)).isEqualTo("1-1-null-2024-01-01T10:00");
+  }
 }
@@ -2,6 +2,8 @@ package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.jwt.JwtRevocationRegistry;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,8 +11,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +30,12 @@ class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private JwtRevocationRegistry jwtRevocationRegistry;
+
+  @Mock
+  private UserDetailsCache userDetailsCache;
+
   @InjectMocks
   private UserService userService;
 
@@ -58,6 +70,40 @@ class UserServiceTest {
     verify(userRepository, times(1)).deleteById(userId);
   }
 
+  @Test
+  @DisplayName("delete() doit révoquer les tokens de l'utilisateur supprimé")
+  void testDelete_ShouldRevokeTokens() {
+
+    userService.delete(1L);
+
+    verify(jwtRevocationRegistry, times(1)).revoke(1L);
+  }
+
+  @Test
+  @DisplayName("delete() doit retirer l'utilisateur du cache des UserDetails")
+  void testDelete_ShouldEvictUserDetails() {
+
+    userService.delete(1L);
+
+    verify(userDetailsCache, times(1)).evictById(1L);
+  }
+
+  @Test
+  @DisplayName("delete() ne doit retirer l'utilisateur du cache qu'après le commit")
+  void testDelete_ShouldEvictUserDetailsAfterCommit() {
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      userService.delete(1L);
+
+      verify(userDetailsCache, never()).evictById(1L);
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      verify(userDetailsCache, times(1)).evictById(1L);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
   @Test
   @DisplayName("delete() doit gérer correctement un ID null")
   void testDelete_ShouldHandleNullId() {
@@ -143,4 +189,26 @@ class UserServiceTest {
     assertThat(actualUser.isAdmin()).isTrue();
     verify(userRepository, times(1)).findById(2L);
   }
+
+  @Test
+  @DisplayName("findAllById() doit charger les utilisateurs en une seule requête")
+  void testFindAllById_ShouldLoadUsersInOneQuery() {
+
+    List<Long> ids = List.of(1L);
+    when(userRepository.findAllById(ids)).thenReturn(List.of(testUser));
+
+    List<User> actualUsers = userService.findAllById(ids);
+
+    assertThat(actualUsers).containsExactly(testUser);
+    verify(userRepository, times(1)).findAllById(ids);
+  }
+
+  @Test
+  @DisplayName("findAllById() ne doit pas interroger la base sans identifiant")
+  void testFindAllById_ShouldSkipEmptyIds() {
+
+    assertThat(userService.findAllById(Collections.emptyList())).isEmpty();
+
+    verifyNoInteractions(userRepository);
+  }
 }
@@ -0,0 +1,76 @@
+package com.openclassrooms.starterjwt.services.integration;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.services.SessionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de l'allocation des ids de session sur une base existante
+ *
+ * Ce qu'on teste :
+ * - avec SESSIONS_SEQ initialisée comme dans script.sql (MAX(id) + 50), les nouvelles sessions
+ *   reçoivent des ids positifs, uniques et supérieurs aux ids déjà présents, y compris au-delà d'un bloc de 50
+ *
+ * Base dédiée : l'optimiseur pooled de Hibernate ne doit avoir réservé aucun bloc avant l'initialisation.
+ */
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:sequencedb",
+  "oc.app.r2dbc.url=r2dbc:pool:h2:mem:///sequencedb?maxSize=4"
+})
+@DisplayName("SessionService - Ids de session sur une base existante")
+public class SessionIdSequenceTest {
+
+  private static final int EXISTING = 10;
+  private static final int CREATED = 60;
+
+  @Autowired
+  private SessionService sessionService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Devrait créer des sessions après les ids existants quand la séquence est initialisée à MAX(id) + 50")
+  public void testSaveAll_AfterExistingRows() {
+    // ARRANGE
+    for (long id = 1; id <= EXISTING; id++) {
+      jdbcTemplate.update(
+        "INSERT INTO SESSIONS (id, name, date, description, participant_count, version) VALUES (?, ?, ?, ?, 0, 0)",
+        id, "Existing " + id, new Timestamp(System.currentTimeMillis()), "Session existante");
+    }
+    Long seed = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 50 FROM SESSIONS", Long.class);
+    jdbcTemplate.execute("ALTER SEQUENCE SESSIONS_SEQ RESTART WITH " + seed);
+
+    List<Session> sessions = new ArrayList<>();
+    for (int i = 0; i < CREATED; i++) {
+      sessions.add(Session.builder()
+        .name("New " + i)
+        .date(new Date())
+        .description("Nouvelle session")
+        .users(new HashSet<>())
+        .build());
+    }
+
+    // ACT
+    List<Session> saved = sessionService.saveAll(sessions);
+
+    // ASSERT
+    List<Long> ids = saved.stream().map(Session::getId).collect(Collectors.toList());
+    assertThat(ids).doesNotHaveDuplicates().allMatch(id -> id > EXISTING);
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SESSIONS", Integer.class))
+      .isEqualTo(EXISTING + CREATED);
+  }
+}
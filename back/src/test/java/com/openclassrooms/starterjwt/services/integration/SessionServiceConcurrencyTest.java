@@ -0,0 +1,316 @@
+package com.openclassrooms.starterjwt.services.integration;
+
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitingListRepository;
+import com.openclassrooms.starterjwt.services.ParticipationStatus;
+import com.openclassrooms.starterjwt.services.SessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de concurrence pour SessionService
+ *
+ * Ce qu'on teste :
+ * - de nombreuses inscriptions simultanées sur une même session sans perte de mise à jour
+ * - une même inscription concurrente n'est acceptée qu'une seule fois
+ * - la capacité n'est jamais dépassée et la liste d'attente est promue dans l'ordre
+ * - un utilisateur qui rejoint une session pleine pendant qu'un participant la quitte finit toujours inscrit
+ */
+@SpringBootTest
+@DisplayName("SessionService - Tests de concurrence")
+public class SessionServiceConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int USERS = 200;
+
+  @Autowired
+  private SessionService sessionService;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private WaitingListRepository waitingListRepository;
+
+  private Session session;
+  private List<User> users;
+
+  @BeforeEach
+  public void setUp() {
+    waitingListRepository.deleteAll();
+    sessionRepository.deleteAll();
+    userRepository.deleteAll();
+    teacherRepository.deleteAll();
+
+    Teacher teacher = teacherRepository.save(Teacher.builder()
+      .firstName("John")
+      .lastName("Doe")
+      .build());
+
+    session = sessionRepository.save(Session.builder()
+      .name("Popular Session")
+      .date(new Date())
+      .description("Tout le monde veut venir")
+      .teacher(teacher)
+      .users(new HashSet<>())
+      .build());
+
+    users = new ArrayList<>();
+    for (int i = 0; i < USERS; i++) {
+      users.add(User.builder()
+        .email("user" + i + "@test.com")
+        .firstName("User")
+        .lastName("Test")
+        .password("password")
+        .admin(false)
+        .build());
+    }
+    users = userRepository.saveAll(users);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    waitingListRepository.deleteAll();
+    sessionRepository.deleteAll();
+    userRepository.deleteAll();
+    teacherRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Devrait enregistrer toutes les inscriptions simultanées")
+  public void testParticipate_Concurrent() throws Exception {
+    // ARRANGE
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (User user : users) {
+      tasks.add(() -> {
+        sessionService.participate(session.getId(), user.getId());
+        return null;
+      });
+    }
+
+    // ACT
+    List<Future<Void>> results = runConcurrently(tasks);
+
+    // ASSERT
+    for (Future<Void> result : results) {
+      result.get();
+    }
+    assertThat(sessionRepository.findParticipations(List.of(session.getId()))).hasSize(USERS);
+    assertThat(sessionRepository.findById(session.getId()).orElseThrow().getVersion())
+      .isEqualTo(session.getVersion() + USERS);
+  }
+
+  @Test
+  @DisplayName("Devrait accepter une seule fois la même inscription concurrente")
+  public void testParticipate_SameUserConcurrent() throws Exception {
+    // ARRANGE
+    Long userId = users.get(0).getId();
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      tasks.add(() -> {
+        sessionService.participate(session.getId(), userId);
+        return null;
+      });
+    }
+
+    // ACT
+    List<Future<Void>> results = runConcurrently(tasks);
+
+    // ASSERT
+    int succeeded = 0;
+    int rejected = 0;
+    for (Future<Void> result : results) {
+      try {
+        result.get();
+        succeeded++;
+      } catch (Exception e) {
+        assertThat(e.getCause()).isInstanceOf(BadRequestException.class);
+        rejected++;
+      }
+    }
+    assertThat(succeeded).isEqualTo(1);
+    assertThat(rejected).isEqualTo(THREADS - 1);
+    assertThat(sessionRepository.countParticipation(session.getId(), userId)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Devrait garder les inscriptions et désinscriptions simultanées cohérentes")
+  public void testParticipateAndLeave_Concurrent() throws Exception {
+    // ARRANGE
+    List<User> leaving = users.subList(0, USERS / 2);
+    for (User user : leaving) {
+      sessionService.participate(session.getId(), user.getId());
+    }
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (User user : users) {
+      tasks.add(() -> {
+        if (leaving.contains(user)) {
+          sessionService.noLongerParticipate(session.getId(), user.getId());
+        } else {
+          sessionService.participate(session.getId(), user.getId());
+        }
+        return null;
+      });
+    }
+
+    // ACT
+    List<Future<Void>> results = runConcurrently(tasks);
+
+    // ASSERT
+    for (Future<Void> result : results) {
+      result.get();
+    }
+    assertThat(sessionRepository.findParticipations(List.of(session.getId())))
+      .hasSize(USERS - leaving.size())
+      .noneMatch(participation -> leaving.stream().anyMatch(user -> user.getId().equals(participation.getUserId())));
+  }
+
+  @Test
+  @DisplayName("Ne devrait jamais dépasser la capacité sous forte concurrence")
+  public void testParticipate_ConcurrentWithCapacity() throws Exception {
+    // ARRANGE
+    int capacity = 50;
+    session.setCapacity(capacity);
+    session = sessionRepository.save(session);
+    List<Callable<ParticipationStatus>> tasks = new ArrayList<>();
+    for (User user : users) {
+      tasks.add(() -> sessionService.participate(session.getId(), user.getId()));
+    }
+
+    // ACT
+    List<Future<ParticipationStatus>> results = runConcurrently(tasks);
+
+    // ASSERT
+    int participating = 0;
+    for (Future<ParticipationStatus> result : results) {
+      if (result.get() == ParticipationStatus.PARTICIPATING) {
+        participating++;
+      }
+    }
+    assertThat(participating).isEqualTo(capacity);
+    assertThat(sessionRepository.findParticipations(List.of(session.getId()))).hasSize(capacity);
+    assertThat(sessionRepository.findById(session.getId()).orElseThrow().getParticipantCount()).isEqualTo(capacity);
+    assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(session.getId(), Pageable.unpaged())).hasSize(USERS - capacity);
+  }
+
+  @Test
+  @DisplayName("Devrait promouvoir la liste d'attente dans l'ordre d'arrivée")
+  public void testNoLongerParticipate_PromotesInOrder() throws Exception {
+    // ARRANGE
+    session.setCapacity(2);
+    session = sessionRepository.save(session);
+    for (User user : users.subList(0, 5)) {
+      sessionService.participate(session.getId(), user.getId());
+    }
+
+    // ACT
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (User user : users.subList(0, 2)) {
+      tasks.add(() -> {
+        sessionService.noLongerParticipate(session.getId(), user.getId());
+        return null;
+      });
+    }
+    for (Future<Void> result : runConcurrently(tasks)) {
+      result.get();
+    }
+
+    // ASSERT
+    assertThat(sessionRepository.findParticipations(List.of(session.getId())))
+      .extracting(participation -> participation.getUserId())
+      .containsExactlyInAnyOrder(users.get(2).getId(), users.get(3).getId());
+    assertThat(sessionRepository.findById(session.getId()).orElseThrow().getParticipantCount()).isEqualTo(2);
+    assertThat(waitingListRepository.findFirstBySessionIdOrderByIdAsc(session.getId()))
+      .hasValueSatisfying(entry -> assertThat(entry.getUserId()).isEqualTo(users.get(4).getId()));
+  }
+
+  @Test
+  @DisplayName("Devrait inscrire l'arrivant quand un participant libère la seule place en même temps")
+  public void testParticipateWhileLeaving_NeverStrandedOnWaitingList() throws Exception {
+    for (int round = 0; round < 20; round++) {
+      // ARRANGE
+      waitingListRepository.deleteAll();
+      session = sessionRepository.save(Session.builder()
+        .name("Full Session " + round)
+        .date(new Date())
+        .description("Une seule place")
+        .capacity(1)
+        .users(new HashSet<>())
+        .build());
+      User leaver = users.get(0);
+      User joiner = users.get(1);
+      sessionService.participate(session.getId(), leaver.getId());
+      List<Callable<Void>> tasks = List.of(
+        () -> {
+          sessionService.noLongerParticipate(session.getId(), leaver.getId());
+          return null;
+        },
+        () -> {
+          sessionService.participate(session.getId(), joiner.getId());
+          return null;
+        });
+
+      // ACT
+      for (Future<Void> result : runConcurrently(tasks)) {
+        result.get();
+      }
+
+      // ASSERT
+      assertThat(sessionRepository.findParticipations(List.of(session.getId())))
+        .extracting(participation -> participation.getUserId())
+        .containsExactly(joiner.getId());
+      assertThat(waitingListRepository.findBySessionIdOrderByIdAsc(session.getId(), Pageable.unpaged())).isEmpty();
+      assertThat(sessionRepository.findById(session.getId()).orElseThrow().getParticipantCount()).isEqualTo(1);
+    }
+  }
+
+  private <T> List<Future<T>> runConcurrently(List<Callable<T>> tasks) throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<T>> results = new ArrayList<>();
+      for (Callable<T> task : tasks) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -44,6 +44,8 @@ describe('FormComponent', () => {
     date: new Date('2024-01-15'),
     teacher_id: 1,
     users: [1, 2, 3],
+    capacity: 10,
+    version: 4,
     createdAt: new Date('2024-01-01'),
     updatedAt: new Date('2024-01-10')
   };
@@ -271,6 +273,32 @@ describe('FormComponent', () => {
       expect(updateSpy).toHaveBeenCalledWith('1', expect.any(Object));
     });
 
+    it('should send back the participants and capacity of the loaded session', () => {
+      const updateSpy = jest.spyOn(sessionApiService, 'update').mockReturnValue(of(mockSession));
+      jest.spyOn(matSnackBar, 'open').mockReturnValue({} as any);
+      jest.spyOn(router, 'navigate');
+
+      component.sessionForm?.patchValue({ name: 'Updated Session' });
+
+      component.submit();
+
+      expect(updateSpy).toHaveBeenCalledWith('1', expect.objectContaining({
+        name: 'Updated Session',
+        users: [1, 2, 3],
+        capacity: 10
+      }));
+    });
+
+    it('should send the version of the loaded session', () => {
+      const updateSpy = jest.spyOn(sessionApiService, 'update').mockReturnValue(of(mockSession));
+      jest.spyOn(matSnackBar, 'open').mockReturnValue({} as any);
+      jest.spyOn(router, 'navigate');
+
+      component.submit();
+
+      expect(updateSpy).toHaveBeenCalledWith('1', expect.objectContaining({ version: 4 }));
+    });
+
     it('should display success message after update', () => {
       jest.spyOn(sessionApiService, 'update').mockReturnValue(of(mockSession));
       const snackBarSpy = jest.spyOn(matSnackBar, 'open').mockReturnValue({} as any);
@@ -18,6 +18,7 @@ export class FormComponent implements OnInit {
   public sessionForm: FormGroup | undefined;
   public teachers$ = this.teacherService.all();
   private id: string | undefined;
+  private session: Session | undefined;
 
   constructor(
     private route: ActivatedRoute,
@@ -40,7 +41,10 @@ export class FormComponent implements OnInit {
       this.id = this.route.snapshot.paramMap.get('id')!;
       this.sessionApiService
         .detail(this.id)
-        .subscribe((session: Session) => this.initForm(session));
+        .subscribe((session: Session) => {
+          this.session = session;
+          this.initForm(session);
+        });
     } else {
       this.initForm();
     }
@@ -54,8 +58,15 @@ export class FormComponent implements OnInit {
         .create(session)
         .subscribe((_: Session) => this.exitPage('Session created !'));
     } else {
+      // The form only edits the details: participants and capacity are sent back as loaded, and the
+      // loaded version lets the server reject the update if the session changed in the meantime
       this.sessionApiService
-        .update(this.id!, session)
+        .update(this.id!, {
+          ...session,
+          users: this.session!.users,
+          capacity: this.session!.capacity,
+          version: this.session!.version
+        })
         .subscribe((_: Session) => this.exitPage('Session updated !'));
     }
   }
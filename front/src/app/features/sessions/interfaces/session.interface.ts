@@ -5,6 +5,9 @@ export interface Session {
   date: Date;
   teacher_id: number;
   users: number[];
+  capacity?: number;
+  participantCount?: number;
+  version?: number;
   createdAt?: Date;
   updatedAt?: Date;
 }
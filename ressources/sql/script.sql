@@ -12,10 +12,23 @@ CREATE TABLE `SESSIONS` (
   `description` VARCHAR(2000),
   `date` TIMESTAMP,
   `teacher_id` int,
+  `capacity` INT,
+  `participant_count` INT NOT NULL DEFAULT 0,
+  `version` BIGINT NOT NULL DEFAULT 0,
   `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- Session ids are allocated by Hibernate in blocks of 50 (see Session.id), MySQL has no sequences.
+-- Hibernate hands out the 50 ids ending at the value it reads, so the seed must be 50 above the highest id.
+-- On a database that already holds sessions, create and seed this table before deploying: with
+-- ddl-auto=update alone Hibernate creates it with next_val = 1 and hands out ids that are already taken.
+CREATE TABLE `SESSIONS_SEQ` (
+  `next_val` BIGINT
+);
+
+INSERT INTO `SESSIONS_SEQ` SELECT COALESCE(MAX(`id`), 0) + 50 FROM `SESSIONS`;
+
 CREATE TABLE `USERS` (
   `id` INT PRIMARY KEY AUTO_INCREMENT,
   `last_name` VARCHAR(40),
@@ -24,18 +37,42 @@ CREATE TABLE `USERS` (
   `email` VARCHAR(255),
   `password` VARCHAR(255),
   `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  UNIQUE KEY `uk_users_email` (`email`)
+);
+
+-- Users whose tokens are refused in stateless mode (see JwtRevocationRegistry); revoked_at is in epoch millis
+CREATE TABLE `JWT_REVOCATIONS` (
+  `user_id` INT PRIMARY KEY,
+  `revoked_at` BIGINT NOT NULL,
+  INDEX `idx_jwt_revocations_revoked_at` (`revoked_at`)
 );
 
 CREATE TABLE `PARTICIPATE` (
-  `user_id` INT, 
-  `session_id` INT
+  `user_id` INT NOT NULL,
+  `session_id` INT NOT NULL,
+  PRIMARY KEY (`session_id`, `user_id`),
+  INDEX `idx_participate_user_session` (`user_id`, `session_id`)
 );
 
 ALTER TABLE `SESSIONS` ADD FOREIGN KEY (`teacher_id`) REFERENCES `TEACHERS` (`id`);
 ALTER TABLE `PARTICIPATE` ADD FOREIGN KEY (`user_id`) REFERENCES `USERS` (`id`);
 ALTER TABLE `PARTICIPATE` ADD FOREIGN KEY (`session_id`) REFERENCES `SESSIONS` (`id`);
 
+CREATE TABLE `WAITING_LIST` (
+  `id` INT PRIMARY KEY AUTO_INCREMENT,
+  `session_id` INT NOT NULL,
+  `user_id` INT NOT NULL,
+  `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY `uk_waiting_list_session_user` (`session_id`, `user_id`),
+  INDEX `idx_waiting_list_session` (`session_id`, `id`)
+);
+
+ALTER TABLE `WAITING_LIST` ADD FOREIGN KEY (`session_id`) REFERENCES `SESSIONS` (`id`) ON DELETE CASCADE;
+ALTER TABLE `WAITING_LIST` ADD FOREIGN KEY (`user_id`) REFERENCES `USERS` (`id`) ON DELETE CASCADE;
+
+CREATE INDEX `idx_sessions_date_teacher` ON `SESSIONS` (`date`, `teacher_id`);
+
 INSERT INTO TEACHERS (first_name, last_name)
 VALUES ('Margot', 'DELAHAYE'),
        ('Hélène', 'THIERCELIN');